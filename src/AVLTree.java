@@ -0,0 +1,466 @@
+package bst;
+
+import treepub.BstADT;
+
+import java.util.*;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+/**
+ * Self-balancing (AVL) implementation of BstADT.
+ *
+ * Same contract as BST (sort function for placement, search function for
+ * lookups, duplicates go to the right) but every add and removeKey rebalances
+ * on the way back up, so the height stays below 1.45 * log2(n) even for
+ * sorted input and add/search/removeKey are O(log n).
+ */
+public class AVLTree<K,V> implements BstADT<K,V> {
+
+    private AVLNode<V> root;
+    private int size;
+    private final Comparator<V> sort;
+    private final BiFunction<K, V, Integer> search;
+
+
+    private AVLTree(Comparator<V> aSortFct, BiFunction<K, V, Integer> aSearchFct) {
+        this.sort = aSortFct;
+        this.search = aSearchFct;
+        this.root = null;
+        this.size = 0;
+    }
+
+    public static <K, V> AVLTree<K, V> fromSortFctSearchFct(Comparator<V> aSortFct, BiFunction<K, V, Integer> aSearchFct){
+        return new AVLTree<>(aSortFct, aSearchFct);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public BstADT<K,V> add(V elem) {
+        if(elem == null)
+            throw new NullPointerException("cannot add null element");
+
+        root = insert(root, elem);
+        size++;
+        return this;
+    }
+
+    private AVLNode<V> insert(AVLNode<V> node, V elem){
+        if(node == null)
+            return new AVLNode<>(elem);
+
+        if(sort.compare(elem, node.value) < 0)
+            node.left = insert(node.left, elem);
+        else
+            node.right = insert(node.right, elem);
+
+        return balance(node);
+    }
+
+    @Override
+    public void visitInOrder(Consumer<V> visitFct) {
+        inOrder(root, visitFct);
+    }
+
+    private void inOrder(AVLNode<V> node, Consumer<V> visitFct){
+        if(node == null)
+            return;
+
+        inOrder(node.left, visitFct);
+        visitFct.accept(node.value);
+        inOrder(node.right, visitFct);
+    }
+
+    @Override
+    public void visitPreOrder(Consumer<V> visitFct) {
+        preOrder(root, visitFct);
+    }
+
+    private void preOrder(AVLNode<V> node, Consumer<V> visitFct){
+        if(node == null)
+            return;
+
+        visitFct.accept(node.value);
+        preOrder(node.left, visitFct);
+        preOrder(node.right, visitFct);
+    }
+
+    @Override
+    public void visitPostOrder(Consumer<V> visitFct) {
+        postOrder(root, visitFct);
+    }
+
+    private void postOrder(AVLNode<V> node, Consumer<V> visitFct){
+        if(node == null)
+            return;
+
+        postOrder(node.left, visitFct);
+        postOrder(node.right, visitFct);
+        visitFct.accept(node.value);
+    }
+
+    @Override
+    public int height() {
+        return height(root);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return root == null;
+    }
+
+    @Override
+    public V search(K key) {
+        var node = get(key);
+        if(node == null)
+            return null;
+        else
+            return node.value;
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public void removeKey(K key) {
+        if(key == null)
+            throw new NullPointerException();
+
+        var before = size;
+        root = delete(root, key);
+
+        if(size == before)
+            throw new NoSuchElementException(String.format("key: %s does not exist", key));
+    }
+
+    private AVLNode<V> delete(AVLNode<V> node, K key){
+        if(node == null)
+            return null;
+
+        int compare = search.apply(key, node.value);
+        if(compare < 0){
+            node.left = delete(node.left, key);
+        } else if(compare > 0){
+            node.right = delete(node.right, key);
+        } else {
+            size--;
+            if(node.left == null)
+                return node.right;
+            if(node.right == null)
+                return node.left;
+
+            // replace by in-order successor, then unlink the successor from the right subtree
+            var successor = node.right;
+            while(successor.left != null){
+                successor = successor.left;
+            }
+            node.value = successor.value;
+            node.right = deleteMin(node.right);
+        }
+        return balance(node);
+    }
+
+    private AVLNode<V> deleteMin(AVLNode<V> node){
+        if(node.left == null)
+            return node.right;
+        node.left = deleteMin(node.left);
+        return balance(node);
+    }
+
+    @Override
+    public V floor(K key) {
+        return valueOf(floorNode(key, true));
+    }
+
+    @Override
+    public V ceiling(K key) {
+        return valueOf(ceilingNode(key, true));
+    }
+
+    @Override
+    public V lower(K key) {
+        return valueOf(floorNode(key, false));
+    }
+
+    @Override
+    public V higher(K key) {
+        return valueOf(ceilingNode(key, false));
+    }
+
+    @Override
+    public V min() {
+        var node = root;
+        if(node == null)
+            return null;
+        while(node.left != null)
+            node = node.left;
+        return node.value;
+    }
+
+    @Override
+    public V max() {
+        var node = root;
+        if(node == null)
+            return null;
+        while(node.right != null)
+            node = node.right;
+        return node.value;
+    }
+
+    /**
+     * Prunes every subtree that lies entirely outside [lo, hi]: O(log n + k)
+     */
+    @Override
+    public void visitRange(K lo, K hi, Consumer<V> visitFct) {
+        if(lo == null || hi == null)
+            throw new NullPointerException();
+        range(root, lo, hi, visitFct);
+    }
+
+    private void range(AVLNode<V> node, K lo, K hi, Consumer<V> visitFct){
+        if(node == null)
+            return;
+
+        var aboveLo = search.apply(lo, node.value) <= 0;
+        var belowHi = search.apply(hi, node.value) >= 0;
+
+        if(aboveLo)
+            range(node.left, lo, hi, visitFct);
+        if(aboveLo && belowHi)
+            visitFct.accept(node.value);
+        if(belowHi)
+            range(node.right, lo, hi, visitFct);
+    }
+
+    @Override
+    public Iterator<V> rangeIterator(K lo, K hi) {
+        if(lo == null || hi == null)
+            throw new NullPointerException();
+
+        return new Iterator<>() {
+            // ancestors still to visit, starting at the first elem >= lo
+            private final Deque<AVLNode<V>> stack = new ArrayDeque<>();
+            {
+                var node = root;
+                while(node != null){
+                    if(search.apply(lo, node.value) <= 0){
+                        stack.push(node);
+                        node = node.left;
+                    } else {
+                        node = node.right;
+                    }
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                return !stack.isEmpty() && search.apply(hi, stack.peek().value) >= 0;
+            }
+
+            @Override
+            public V next() {
+                if(!hasNext())
+                    throw new NoSuchElementException();
+                var node = stack.pop();
+                for (var n = node.right; n != null; n = n.left) {
+                    stack.push(n);
+                }
+                return node.value;
+            }
+        };
+    }
+
+    @Override
+    public Iterator<V> toIterator() {
+        return new Iterator<>() {
+            // path of pending ancestors, at most height() deep
+            private final Deque<AVLNode<V>> stack = new ArrayDeque<>();
+            {
+                pushLeft(root);
+            }
+
+            @Override
+            public boolean hasNext() {
+                return !stack.isEmpty();
+            }
+
+            @Override
+            public V next() {
+                if(!hasNext())
+                    throw new NoSuchElementException();
+                var node = stack.pop();
+                pushLeft(node.right);
+                return node.value;
+            }
+
+            private void pushLeft(AVLNode<V> node){
+                for (; node != null; node = node.left) {
+                    stack.push(node);
+                }
+            }
+        };
+    }
+
+    @Override
+    public Iterator<V> toPreOrderIterator() {
+        return new Iterator<>() {
+            private final Deque<AVLNode<V>> stack = new ArrayDeque<>();
+            {
+                if(root != null)
+                    stack.push(root);
+            }
+
+            @Override
+            public boolean hasNext() {
+                return !stack.isEmpty();
+            }
+
+            @Override
+            public V next() {
+                if(!hasNext())
+                    throw new NoSuchElementException();
+                var node = stack.pop();
+                if(node.right != null)
+                    stack.push(node.right);
+                if(node.left != null)
+                    stack.push(node.left);
+                return node.value;
+            }
+        };
+    }
+
+    private AVLNode<V> floorNode(K key, boolean inclusive){
+        if (key == null){
+            throw new NullPointerException();
+        }
+
+        AVLNode<V> result = null;
+        var node = this.root;
+        while(node != null){
+            int compare = search.apply(key, node.value);
+
+            if(compare > 0 || (inclusive && compare == 0)){
+                result = node;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return result;
+    }
+
+    private AVLNode<V> ceilingNode(K key, boolean inclusive){
+        if (key == null){
+            throw new NullPointerException();
+        }
+
+        AVLNode<V> result = null;
+        var node = this.root;
+        while(node != null){
+            int compare = search.apply(key, node.value);
+
+            if(compare < 0 || (inclusive && compare == 0)){
+                result = node;
+                node = node.left;
+            } else {
+                node = node.right;
+            }
+        }
+        return result;
+    }
+
+    private static <V> V valueOf(AVLNode<V> node){
+        return node == null ? null : node.value;
+    }
+
+    private AVLNode<V> get(K key){
+        if (key == null){
+            throw new NullPointerException();
+        }
+
+        var node = this.root;
+        while(node != null){
+
+            int compare = search.apply(key, node.value);
+
+            if (compare < 0)
+                node = node.left;
+            else if (compare > 0)
+                node = node.right;
+            else
+                return node;
+
+        }
+        return null;
+    }
+
+    // rebalancing
+
+    private static <V> int height(AVLNode<V> node){
+        return node == null ? 0 : node.height;
+    }
+
+    private static <V> AVLNode<V> balance(AVLNode<V> node){
+        var diff = height(node.left) - height(node.right);
+        if(diff > 1){
+            if(height(node.left.left) < height(node.left.right))
+                node.left = rotateLeft(node.left);
+            return rotateRight(node);
+        }
+        if(diff < -1){
+            if(height(node.right.right) < height(node.right.left))
+                node.right = rotateRight(node.right);
+            return rotateLeft(node);
+        }
+        node.fixHeight();
+        return node;
+    }
+
+    private static <V> AVLNode<V> rotateRight(AVLNode<V> node){
+        var l = node.left;
+        node.left = l.right;
+        l.right = node;
+        node.fixHeight();
+        l.fixHeight();
+        return l;
+    }
+
+    private static <V> AVLNode<V> rotateLeft(AVLNode<V> node){
+        var r = node.right;
+        node.right = r.left;
+        r.left = node;
+        node.fixHeight();
+        r.fixHeight();
+        return r;
+    }
+
+    private static class AVLNode<V>{
+
+        private AVLNode<V> left, right;
+        private int height;
+
+        private V value;
+
+        public AVLNode(V data) {
+            this.left = null;
+            this.right = null;
+            this.height = 1;
+            this.value = data;
+        }
+
+        void fixHeight(){
+            height = 1 + Math.max(AVLTree.height(left), AVLTree.height(right));
+        }
+
+        public V getValue() {
+            return value;
+        }
+
+        public String toString() {return this.value.toString();}
+    }
+}
@@ -1,10 +1,22 @@
 package bst;
 
+import dynamicList.DynamicList;
+import snapshot.ElementCodec;
+import snapshot.Snapshot;
 import treepub.BstADT;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StreamCorruptedException;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.util.*;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class BST<K,V> implements BstADT<K,V> {
 
@@ -12,8 +24,14 @@ public class BST<K,V> implements BstADT<K,V> {
         this.root = root;
     }
 
+    // child flags of a node in a snapshot
+    private static final int HAS_LEFT = 1;
+    private static final int HAS_RIGHT = 2;
+
     private BSTNode<V>  root;
     private int size;
+    // bumped by every structural change so iterators and visits can fail fast
+    private int modCount;
     private final Comparator<V> sort;
     private final BiFunction<K, V, Integer> search;
 
@@ -29,6 +47,211 @@ public class BST<K,V> implements BstADT<K,V> {
         return new BST<>(aSortFct, aSearchFct);
     }
 
+    /**
+     * Return a perfectly balanced tree holding every elem of param "elems" in O(n).
+     * If "elems" is not sorted according to "aSortFct" it is sorted first (O(n log n)).
+     */
+    public static <K, V> BST<K, V> fromSorted(DynamicList<V> elems, Comparator<V> aSortFct, BiFunction<K, V, Integer> aSearchFct){
+        return fromSortedList(elems.toNativeList(), aSortFct, aSearchFct);
+    }
+
+    /**
+     * Array variant of fromSorted (the passed array is not modified)
+     */
+    public static <K, V> BST<K, V> fromArray(V[] elems, Comparator<V> aSortFct, BiFunction<K, V, Integer> aSearchFct){
+        return fromSortedList(new ArrayList<>(Arrays.asList(elems)), aSortFct, aSearchFct);
+    }
+
+    private static <K, V> BST<K, V> fromSortedList(List<V> elems, Comparator<V> aSortFct, BiFunction<K, V, Integer> aSearchFct){
+        var tree = new BST<K, V>(aSortFct, aSearchFct);
+
+        for (int i = 1; i < elems.size(); i++) {
+            if(aSortFct.compare(elems.get(i - 1), elems.get(i)) > 0){
+                // stable, so equal elems keep their order (duplicates stay to the right)
+                elems.sort(aSortFct);
+                break;
+            }
+        }
+        for (var elem : elems) {
+            if(elem == null)
+                throw new NullPointerException("cannot add null element");
+        }
+
+        tree.setRoot(build(elems, 0, elems.size(), null));
+        tree.size = elems.size();
+        return tree;
+    }
+
+    // balanced subtree over elems[lo, hi); recursion depth is log2(n)
+    private static <V> BSTNode<V> build(List<V> elems, int lo, int hi, BSTNode<V> parent){
+        if(lo >= hi)
+            return null;
+
+        var mid = (lo + hi) >>> 1;
+        var node = new BSTNode<>(elems.get(mid), parent);
+        node.left = build(elems, lo, mid, node);
+        node.right = build(elems, mid + 1, hi, node);
+        node.update();
+        return node;
+    }
+
+    /**
+     * Restructure this tree in place into a balanced tree in O(n) time and
+     * O(1) extra space (Day-Stout-Warren: flatten to a vine, then compress)
+     */
+    public void rebalance() {
+        if(size < 3)
+            return;
+
+        var pseudoRoot = new BSTNode<V>(null, null);
+        pseudoRoot.right = root;
+
+        treeToVine(pseudoRoot);
+        vineToTree(pseudoRoot, size);
+
+        setRoot(pseudoRoot.right);
+        root.parent = null;
+        for (var node = postOrderFirst(root); node != null; node = postOrderNext(node)) {
+            node.update();
+        }
+        modCount++;
+    }
+
+    /**
+     * Write a checksummed binary snapshot of this tree (format: see snapshot.Snapshot).
+     * Payload: size, then every node in pre-order as a child-flags byte and the encoded value,
+     * which is enough to rebuild the exact shape.
+     */
+    public void writeTo(OutputStream out, ElementCodec<V> codec) throws IOException {
+        Snapshot.write(out, Snapshot.BST, data -> {
+            data.writeInt(size);
+            for (var node = root; node != null; node = preOrderNext(node)) {
+                data.writeByte((node.left != null ? HAS_LEFT : 0) | (node.right != null ? HAS_RIGHT : 0));
+                codec.write(node.value, data);
+            }
+        });
+    }
+
+    public void writeTo(WritableByteChannel out, ElementCodec<V> codec) throws IOException {
+        writeTo(Channels.newOutputStream(out), codec);
+    }
+
+    /**
+     * Return the tree saved by writeTo, in its saved shape (no comparisons are made)
+     * Throws StreamCorruptedException if the snapshot is invalid
+     */
+    public static <K, V> BST<K, V> readFrom(InputStream in, ElementCodec<V> codec, Comparator<V> aSortFct, BiFunction<K, V, Integer> aSearchFct) throws IOException {
+        return Snapshot.read(in, Snapshot.BST, data -> {
+            var tree = new BST<K, V>(aSortFct, aSearchFct);
+            var count = data.readInt();
+            if(count < 0)
+                throw new StreamCorruptedException("snapshot tree size is negative");
+
+            // pre-order: after a node comes its left subtree, then its right one
+            var awaitingRight = new ArrayDeque<BSTNode<V>>();
+            BSTNode<V> parent = null;
+            var asLeft = false;
+            byte flags = 0;
+            for (int i = 0; i < count; i++) {
+                flags = data.readByte();
+                if((flags & ~(HAS_LEFT | HAS_RIGHT)) != 0)
+                    throw new StreamCorruptedException("snapshot tree shape is inconsistent");
+                var node = new BSTNode<>(codec.read(data), parent);
+                if(parent == null){
+                    tree.setRoot(node);
+                } else if(asLeft){
+                    parent.left = node;
+                } else {
+                    parent.right = node;
+                }
+
+                if((flags & HAS_RIGHT) != 0)
+                    awaitingRight.push(node);
+                if((flags & HAS_LEFT) != 0){
+                    parent = node;
+                    asLeft = true;
+                } else if(i + 1 < count){
+                    if(awaitingRight.isEmpty())
+                        throw new StreamCorruptedException("snapshot tree shape is inconsistent");
+                    parent = awaitingRight.pop();
+                    asLeft = false;
+                }
+            }
+            // the last node must be a leaf, and every announced right child must have been read
+            if((flags & HAS_LEFT) != 0 || !awaitingRight.isEmpty())
+                throw new StreamCorruptedException("snapshot tree shape is inconsistent");
+
+            tree.size = count;
+            for (var node = postOrderFirst(tree.root); node != null; node = postOrderNext(node)) {
+                node.update();
+            }
+            return tree;
+        });
+    }
+
+    public static <K, V> BST<K, V> readFrom(ReadableByteChannel in, ElementCodec<V> codec, Comparator<V> aSortFct, BiFunction<K, V, Integer> aSearchFct) throws IOException {
+        return readFrom(Channels.newInputStream(in), codec, aSortFct, aSearchFct);
+    }
+
+    /**
+     * As readFrom, then rebalance() the restored tree (O(n) overall)
+     */
+    public static <K, V> BST<K, V> readFromBalanced(InputStream in, ElementCodec<V> codec, Comparator<V> aSortFct, BiFunction<K, V, Integer> aSearchFct) throws IOException {
+        BST<K, V> tree = readFrom(in, codec, aSortFct, aSearchFct);
+        tree.rebalance();
+        return tree;
+    }
+
+    // rotate right until every node hangs off its predecessor's right link
+    // (every rotation here and in compress updates the parent links it moves)
+    private static <V> void treeToVine(BSTNode<V> pseudoRoot){
+        var tail = pseudoRoot;
+        var rest = tail.right;
+        while(rest != null){
+            if(rest.left == null){
+                tail = rest;
+                rest = rest.right;
+            } else {
+                var temp = rest.left;
+                rest.left = temp.right;
+                if(rest.left != null)
+                    rest.left.parent = rest;
+                temp.right = rest;
+                rest.parent = temp;
+                rest = temp;
+                tail.right = temp;
+                temp.parent = tail;
+            }
+        }
+    }
+
+    private static <V> void vineToTree(BSTNode<V> pseudoRoot, int size){
+        // nodes beyond the largest complete tree go to the bottom level first
+        var leaves = size + 1 - Integer.highestOneBit(size + 1);
+        compress(pseudoRoot, leaves);
+        size -= leaves;
+        while(size > 1){
+            size >>>= 1;
+            compress(pseudoRoot, size);
+        }
+    }
+
+    // left-rotate every other node along the vine, "count" times
+    private static <V> void compress(BSTNode<V> pseudoRoot, int count){
+        var scanner = pseudoRoot;
+        for (int i = 0; i < count; i++) {
+            var child = scanner.right;
+            scanner.right = child.right;
+            scanner.right.parent = scanner;
+            scanner = scanner.right;
+            child.right = scanner.left;
+            if(child.right != null)
+                child.right.parent = child;
+            scanner.left = child;
+            child.parent = scanner;
+        }
+    }
+
     @Override
     public int size() {
         return size;
@@ -56,7 +279,7 @@ public class BST<K,V> implements BstADT<K,V> {
 
                 if(compare < 0)
                     node = node.left;
-                else if(compare > 0)
+                else
                     node=node.right;
             } while(node!=null);
 
@@ -66,64 +289,46 @@ public class BST<K,V> implements BstADT<K,V> {
                 parent.left = n;
             else
                 parent.right = n;
-            
+
+            updateUpward(parent);
             size++;
         }
 
-
+        modCount++;
 
         return this;
     }
 
     @Override
     public void visitInOrder(Consumer<V> visitFct) {
-        inOrder(root, visitFct);
-    }
-
-    private void inOrder(BSTNode<V> node ,Consumer<V> visitFct){
-        if (node == null)
-            return;
-
-        inOrder(node.left, visitFct);
-
-        visitFct.accept(node.value);
-
-        inOrder(node.right, visitFct);
+        var expected = modCount;
+        for (var node = leftmost(root); node != null; node = successor(node)) {
+            visitFct.accept(node.value);
+            checkForComodification(expected);
+        }
     }
 
     @Override
     public void visitPreOrder(Consumer<V> visitFct) {
-        preOrder(root, visitFct);
-    }
-
-    private void preOrder(BSTNode<V> node, Consumer<V> visitFct){
-        if(node == null){
-            return;
+        var expected = modCount;
+        for (var node = root; node != null; node = preOrderNext(node)) {
+            visitFct.accept(node.value);
+            checkForComodification(expected);
         }
-        visitFct.accept(node.value);
-
-        preOrder(node.left, visitFct);
-        preOrder(node.right, visitFct);
     }
 
     @Override
     public void visitPostOrder(Consumer<V> visitFct) {
-        postOrder(root, visitFct);
-    }
-    private void postOrder(BSTNode<V> node, Consumer<V> visitFct){
-        if(node == null)
-            return;
-
-        postOrder(node.left, visitFct);
-
-        postOrder(node.right, visitFct);
-
-        visitFct.accept(node.getValue());
+        var expected = modCount;
+        for (var node = postOrderFirst(root); node != null; node = postOrderNext(node)) {
+            visitFct.accept(node.getValue());
+            checkForComodification(expected);
+        }
     }
 
     @Override
     public int height() {
-        return 0;
+        return height(root);
     }
 
     @Override
@@ -153,95 +358,455 @@ public class BST<K,V> implements BstADT<K,V> {
             throw new NoSuchElementException(String.format("key: %s does not exist", key));
         }
 
-        var parent = toRemove.parent;
-
-        if(parent == null){
-            this.root=null;
+        // lowest node whose subtree changed; size/height are fixed from there to the root
+        BSTNode<V> changed;
 
+        if(toRemove.left == null){
+            changed = toRemove.parent;
+            transplant(toRemove, toRemove.right);
+        } else if(toRemove.right == null){
+            changed = toRemove.parent;
+            transplant(toRemove, toRemove.left);
+        } else {
+            // splice in the in-order successor (leftmost of the right subtree)
+            var successor = leftmost(toRemove.right);
+            changed = successor;
+            if(successor.parent != toRemove){
+                changed = successor.parent;
+                transplant(successor, successor.right);
+                successor.right = toRemove.right;
+                successor.right.parent = successor;
+            }
+            transplant(toRemove, successor);
+            successor.left = toRemove.left;
+            successor.left.parent = successor;
         }
+
+        updateUpward(changed);
         size--;
+        modCount++;
+    }
 
-        if(toRemove.left == null && toRemove.right == null){
+    // put "replacement" (may be null) where "node" hangs from its parent
+    private void transplant(BSTNode<V> node, BSTNode<V> replacement){
+        var parent = node.parent;
 
-            assert parent != null;
-            if(parent.left!=null&&parent.left.equals(toRemove)){
-                parent.left = null;
-            } else if(parent.right!=null&&parent.right.equals(toRemove)){
-                parent.right = null;
-            }
-            toRemove = null;
+        if(parent == null)
+            setRoot(replacement);
+        else if(parent.left == node)
+            parent.left = replacement;
+        else
+            parent.right = replacement;
+
+        if(replacement != null)
+            replacement.parent = parent;
+    }
+
+    //--------------------- Order statistics ---------------------
+
+    /**
+     * Return the elem at in-order position "index" (0 is the smallest)
+     * Throws IndexOutOfBoundsException if index is not between 0 and size - 1
+     * O(height) using the subtree sizes kept in every node
+     */
+    public V select(int index) {
+        if(index < 0 || index >= size)
+            throw new IndexOutOfBoundsException(String.format("(select) index %d out of bounds", index));
+
+        return selectNode(index).value;
+    }
+
+    /**
+     * Return a spliterator over the elems in order that splits by rank range:
+     * each part finds its first node with select (O(height), using the subtree
+     * sizes) and then walks successors.
+     * SIZED, SUBSIZED, ORDERED and SORTED (by the sort function of this tree);
+     * fails fast if the tree is changed while it is in use.
+     */
+    public Spliterator<V> spliterator() {
+        return new RankSpliterator(0, size, modCount);
+    }
 
-        } else if (toRemove.right==null){
+    public Stream<V> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
 
-            assert parent != null;
-            if(parent.left!=null&&parent.left.equals(toRemove)){
-                parent.left = toRemove.left;
+    public Stream<V> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
+    private BSTNode<V> selectNode(int index){
+        var node = root;
+        while(true){
+            var leftSize = size(node.left);
+            if(index < leftSize){
+                node = node.left;
+            } else if(index == leftSize){
+                return node;
+            } else {
+                index -= leftSize + 1;
+                node = node.right;
             }
-            if(parent.right!=null&&parent.right.equals(toRemove)){
-                parent.right = toRemove.left;
+        }
+    }
+
+    /**
+     * Return the number of elems whose key is strictly less than param "key"
+     */
+    public int rank(K key) {
+        return countBelow(key, false);
+    }
+
+    /**
+     * Return the number of elems whose key is between "lo" and "hi" (both inclusive)
+     */
+    public int countRange(K lo, K hi) {
+        return Math.max(0, countBelow(hi, true) - countBelow(lo, false));
+    }
+
+    // number of elems < key (or <= key when inclusive)
+    private int countBelow(K key, boolean inclusive){
+        if (key == null){
+            throw new NullPointerException();
+        }
+
+        var count = 0;
+        var node = this.root;
+        while(node != null){
+            int compare = search.apply(key, node.value);
+
+            if(compare > 0 || (inclusive && compare == 0)){
+                count += size(node.left) + 1;
+                node = node.right;
+            } else {
+                node = node.left;
             }
+        }
+        return count;
+    }
+
+    @Override
+    public V floor(K key) {
+        return valueOf(floorNode(key, true));
+    }
 
-        } else if (toRemove.left==null){
+    @Override
+    public V ceiling(K key) {
+        return valueOf(ceilingNode(key, true));
+    }
+
+    @Override
+    public V lower(K key) {
+        return valueOf(floorNode(key, false));
+    }
 
-            assert parent != null;
-            if(parent.left!=null &&parent.left.equals(toRemove)){
-                parent.left = toRemove.right;
-                parent.left.parent = parent;
+    @Override
+    public V higher(K key) {
+        return valueOf(ceilingNode(key, false));
+    }
+
+    @Override
+    public V min() {
+        return valueOf(leftmost(root));
+    }
+
+    @Override
+    public V max() {
+        var node = root;
+        if(node == null)
+            return null;
+        while(node.right != null)
+            node = node.right;
+        return node.value;
+    }
+
+    /**
+     * Descend once to the first elem >= lo, then follow successors
+     * until past hi: O(height + k)
+     */
+    @Override
+    public void visitRange(K lo, K hi, Consumer<V> visitFct) {
+        if(hi == null)
+            throw new NullPointerException();
+
+        var expected = modCount;
+        for (var node = ceilingNode(lo, true); node != null && search.apply(hi, node.value) >= 0; node = successor(node)) {
+            visitFct.accept(node.value);
+            checkForComodification(expected);
+        }
+    }
+
+    @Override
+    public Iterator<V> rangeIterator(K lo, K hi) {
+        if(hi == null)
+            throw new NullPointerException();
+
+        var first = ceilingNode(lo, true);
+        if(first != null && search.apply(hi, first.value) < 0)
+            first = null;
+
+        return new NodeIterator(first) {
+            @Override
+            BSTNode<V> advance(BSTNode<V> node) {
+                var next = successor(node);
+                return next != null && search.apply(hi, next.value) >= 0 ? next : null;
+            }
+        };
+    }
+
+    /**
+     * In-order iterator walking the parent pointers: O(1) extra space, no stack.
+     * Fails fast with ConcurrentModificationException if the tree is changed
+     * while iterating.
+     */
+    @Override
+    public Iterator<V> toIterator() {
+        return new NodeIterator(leftmost(root)) {
+            @Override
+            BSTNode<V> advance(BSTNode<V> node) {
+                return successor(node);
             }
-            if(parent.right!=null && parent.right.equals(toRemove)){
-                parent.right = toRemove.right;
-                parent.right.parent = parent;
+        };
+    }
+
+    /**
+     * Pre-order iterator walking the parent pointers: O(1) extra space, no stack
+     */
+    @Override
+    public Iterator<V> toPreOrderIterator() {
+        return new NodeIterator(root) {
+            @Override
+            BSTNode<V> advance(BSTNode<V> node) {
+                return preOrderNext(node);
             }
+        };
+    }
 
+    private abstract class NodeIterator implements Iterator<V> {
 
-        } else {
+        private BSTNode<V> next;
+        private final int expectedModCount;
+
+        NodeIterator(BSTNode<V> first){
+            this.next = first;
+            this.expectedModCount = modCount;
+        }
 
-            assert parent != null;
-            if (parent.left!=null&&parent.left.equals(toRemove)){
-                parent.left = toRemove.left;
-                parent.left.parent = parent;
+        abstract BSTNode<V> advance(BSTNode<V> node);
 
-                // go to last on the right
-                BSTNode<V> t;
-                BSTNode<V> temp = parent.left;
-                do{
-                    t = temp;
-                    temp = temp.right;
+        @Override
+        public boolean hasNext() {
+            checkForComodification(expectedModCount);
+            return next != null;
+        }
 
-                }while(temp!=null);
+        @Override
+        public V next() {
+            if(!hasNext())
+                throw new NoSuchElementException();
 
-                t.right = toRemove.right;
-                toRemove.right.parent = t.right;
+            var current = next;
+            next = advance(current);
+            return current.value;
+        }
+    }
+
+    private final class RankSpliterator implements Spliterator<V> {
+
+        // covers in-order ranks [index, fence)
+        private int index;
+        private final int fence;
+        // node at rank "index", located lazily
+        private BSTNode<V> next;
+        private final int expectedModCount;
+
+        RankSpliterator(int index, int fence, int expectedModCount){
+            this.index = index;
+            this.fence = fence;
+            this.expectedModCount = expectedModCount;
+        }
+
+        @Override
+        public Spliterator<V> trySplit() {
+            var lo = index;
+            var mid = (lo + fence) >>> 1;
+            if(mid <= lo)
+                return null;
+
+            index = mid;
+            next = null;
+            return new RankSpliterator(lo, mid, expectedModCount);
+        }
 
+        @Override
+        public boolean tryAdvance(Consumer<? super V> action) {
+            checkForComodification(expectedModCount);
+            if(index >= fence)
+                return false;
+
+            if(next == null)
+                next = selectNode(index);
+            var value = next.value;
+            next = successor(next);
+            index++;
+            action.accept(value);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super V> action) {
+            checkForComodification(expectedModCount);
+            if(index >= fence)
+                return;
+
+            var node = next != null ? next : selectNode(index);
+            for (; index < fence; index++) {
+                action.accept(node.value);
+                node = successor(node);
             }
-            if (parent.right!=null&&parent.right.equals(toRemove)){
-                parent.right = toRemove.left;
-                parent.right.parent = parent;
-                BSTNode<V> t;
-                BSTNode<V> temp = parent.right;
-                do{
-                    t = temp;
-                    temp = temp.right;
+            next = null;
+            checkForComodification(expectedModCount);
+        }
+
+        @Override
+        public long estimateSize() {
+            return fence - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED | SORTED | NONNULL;
+        }
+
+        @Override
+        public Comparator<? super V> getComparator() {
+            return sort;
+        }
+    }
 
-                }while(temp!=null);
+    // parent-pointer navigation (no recursion, no stack)
 
-                t.right = toRemove.right;
-                toRemove.right.parent = t.right;
+    private static <V> BSTNode<V> leftmost(BSTNode<V> node){
+        if(node == null)
+            return null;
+        while(node.left != null)
+            node = node.left;
+        return node;
+    }
 
+    private static <V> BSTNode<V> successor(BSTNode<V> node){
+        if(node.right != null)
+            return leftmost(node.right);
+
+        var parent = node.parent;
+        while(parent != null && node == parent.right){
+            node = parent;
+            parent = parent.parent;
+        }
+        return parent;
+    }
+
+    private static <V> BSTNode<V> preOrderNext(BSTNode<V> node){
+        if(node.left != null)
+            return node.left;
+        if(node.right != null)
+            return node.right;
+
+        // climb until we arrive from a left child whose parent has an unvisited right subtree
+        var parent = node.parent;
+        while(parent != null && (node == parent.right || parent.right == null)){
+            node = parent;
+            parent = parent.parent;
+        }
+        return parent == null ? null : parent.right;
+    }
+
+    private static <V> BSTNode<V> postOrderFirst(BSTNode<V> node){
+        if(node == null)
+            return null;
+        while(true){
+            if(node.left != null)
+                node = node.left;
+            else if(node.right != null)
+                node = node.right;
+            else
+                return node;
+        }
+    }
+
+    private static <V> BSTNode<V> postOrderNext(BSTNode<V> node){
+        var parent = node.parent;
+        if(parent == null)
+            return null;
+        if(node == parent.left && parent.right != null)
+            return postOrderFirst(parent.right);
+        return parent;
+    }
+
+    private void checkForComodification(int expectedModCount){
+        if(modCount != expectedModCount)
+            throw new ConcurrentModificationException();
+    }
+
+    // last node (in order) whose elem is <= key (or < key when not inclusive)
+    private BSTNode<V> floorNode(K key, boolean inclusive){
+        if (key == null){
+            throw new NullPointerException();
+        }
+
+        BSTNode<V> result = null;
+        var node = this.root;
+        while(node != null){
+            int compare = search.apply(key, node.value);
+
+            if(compare > 0 || (inclusive && compare == 0)){
+                result = node;
+                node = node.right;
+            } else {
+                node = node.left;
             }
+        }
+        return result;
+    }
+
+    // first node (in order) whose elem is >= key (or > key when not inclusive)
+    private BSTNode<V> ceilingNode(K key, boolean inclusive){
+        if (key == null){
+            throw new NullPointerException();
+        }
 
+        BSTNode<V> result = null;
+        var node = this.root;
+        while(node != null){
+            int compare = search.apply(key, node.value);
+
+            if(compare < 0 || (inclusive && compare == 0)){
+                result = node;
+                node = node.left;
+            } else {
+                node = node.right;
+            }
         }
+        return result;
     }
 
-    @Override
-    public Iterator<V> toIterator() {
+    private static <V> int size(BSTNode<V> node){
+        return node == null ? 0 : node.size;
+    }
 
-        return null;
+    private static <V> int height(BSTNode<V> node){
+        return node == null ? 0 : node.height;
     }
 
-    @Override
-    public Iterator<V> toPreOrderIterator() {
-        return null;
+    // recompute size/height from "node" up to the root
+    private static <V> void updateUpward(BSTNode<V> node){
+        for (; node != null; node = node.parent) {
+            node.update();
+        }
+    }
+
+    private static <V> V valueOf(BSTNode<V> node){
+        return node == null ? null : node.value;
     }
 
     private BSTNode<V> get(K key){
@@ -269,6 +834,9 @@ public class BST<K,V> implements BstADT<K,V> {
 
         private BSTNode<V> left, right, parent;
 
+        // number of nodes / node levels in the subtree rooted here
+        private int size, height;
+
         private V value;
 
         public BSTNode(V data, BSTNode<V> parent) {
@@ -276,6 +844,13 @@ public class BST<K,V> implements BstADT<K,V> {
             this.right = null;
             this.parent = parent;
             this.value = data;
+            this.size = 1;
+            this.height = 1;
+        }
+
+        void update(){
+            size = 1 + BST.size(left) + BST.size(right);
+            height = 1 + Math.max(BST.height(left), BST.height(right));
         }
 
         public V getValue() {
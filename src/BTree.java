@@ -0,0 +1,716 @@
+package bst;
+
+import treepub.BstADT;
+
+import java.util.*;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+/**
+ * B+-tree implementation of BstADT for large in-memory indexes.
+ *
+ * Elements live only in leaves, each holding up to "fanout" elements in a sorted
+ * array; leaves are doubly linked so in-order scans never climb the tree.
+ * Inner nodes hold up to "fanout" children and fanout - 1 separators.
+ * Compared to BST this needs one object per ~fanout elements instead of one per
+ * element, and a lookup touches height() ~ log_fanout(n) nodes.
+ *
+ * Same contract as BST: the sort function places elems, the search function
+ * compares a key to an elem, duplicates are kept (after existing equal elems).
+ */
+public class BTree<K,V> implements BstADT<K,V> {
+
+    private static final int DEFAULT_FANOUT = 64;
+    private static final int MIN_FANOUT = 16;
+    private static final int MAX_FANOUT = 256;
+
+    private final int fanout;
+    private final int minLeafCount;
+    private final int minChildCount;
+    private final Comparator<V> sort;
+    private final BiFunction<K, V, Integer> search;
+
+    private Node root;
+    private Leaf<V> head, tail;
+    private int size;
+    private int height;
+    private int modCount;
+
+
+    private BTree(int fanout, Comparator<V> aSortFct, BiFunction<K, V, Integer> aSearchFct) {
+        if(fanout < MIN_FANOUT || fanout > MAX_FANOUT)
+            throw new IllegalArgumentException(String.format("fanout must be between %d and %d", MIN_FANOUT, MAX_FANOUT));
+
+        this.fanout = fanout;
+        this.minLeafCount = fanout / 2;
+        this.minChildCount = (fanout + 1) / 2;
+        this.sort = aSortFct;
+        this.search = aSearchFct;
+    }
+
+    public static <K, V> BTree<K, V> fromSortFctSearchFct(Comparator<V> aSortFct, BiFunction<K, V, Integer> aSearchFct){
+        return new BTree<>(DEFAULT_FANOUT, aSortFct, aSearchFct);
+    }
+
+    /**
+     * "fanout" (16 to 256) is the max number of elems per leaf and children per inner node
+     */
+    public static <K, V> BTree<K, V> fromFanoutSortFctSearchFct(int fanout, Comparator<V> aSortFct, BiFunction<K, V, Integer> aSearchFct){
+        return new BTree<>(fanout, aSortFct, aSearchFct);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Return the number of node levels (a tree with only a root leaf has height 1)
+     */
+    @Override
+    public int height() {
+        return height;
+    }
+
+    //--------------------- Adding ---------------------
+
+    @Override
+    public BstADT<K,V> add(V elem) {
+        if(elem == null)
+            throw new NullPointerException("cannot add null element");
+
+        if(root == null){
+            var leaf = new Leaf<V>(fanout);
+            root = leaf;
+            head = leaf;
+            tail = leaf;
+            height = 1;
+        }
+
+        var path = new Path<V>(height);
+        var node = root;
+        while(node instanceof Inner){
+            @SuppressWarnings("unchecked")
+            var inner = (Inner<V>) node;
+            var i = childAfter(inner, elem);
+            path.push(inner, i);
+            node = inner.children[i];
+        }
+
+        @SuppressWarnings("unchecked")
+        var leaf = (Leaf<V>) node;
+        leaf.insert(leafPositionAfter(leaf, elem), elem);
+        size++;
+        modCount++;
+
+        if(leaf.count > fanout)
+            splitUpward(leaf, path);
+
+        return this;
+    }
+
+    private void splitUpward(Leaf<V> leaf, Path<V> path){
+        var right = leaf.split();
+        if(right.next == null)
+            tail = right;
+
+        Node newChild = right;
+        var separator = right.values[0];
+
+        for (int d = path.depth - 1; d >= 0; d--) {
+            var parent = path.nodes[d];
+            parent.insertChild(path.indexes[d] + 1, separator, newChild);
+            if(parent.count <= fanout)
+                return;
+
+            var rightInner = parent.split();
+            separator = rightInner.promoted;
+            rightInner.promoted = null;
+            newChild = rightInner;
+        }
+
+        var newRoot = new Inner<V>(fanout);
+        newRoot.children[0] = root;
+        newRoot.children[1] = newChild;
+        newRoot.separators[0] = separator;
+        newRoot.count = 2;
+        root = newRoot;
+        height++;
+    }
+
+    //--------------------- Removing ---------------------
+
+    @Override
+    public void removeKey(K key) {
+        if(key == null)
+            throw new NullPointerException();
+        if(root == null)
+            throw new NoSuchElementException(String.format("key: %s does not exist", key));
+
+        var path = new Path<V>(height);
+        var node = root;
+        while(node instanceof Inner){
+            @SuppressWarnings("unchecked")
+            var inner = (Inner<V>) node;
+            var i = childAtLeast(inner, key);
+            path.push(inner, i);
+            node = inner.children[i];
+        }
+
+        @SuppressWarnings("unchecked")
+        var leaf = (Leaf<V>) node;
+        var pos = leafPositionAtLeast(leaf, key);
+        if(pos == leaf.count){
+            // first match (if any) starts the next leaf: move the path there
+            leaf = path.advanceToNextLeaf();
+            pos = 0;
+        }
+
+        if(leaf == null || search.apply(key, leaf.values[pos]) != 0)
+            throw new NoSuchElementException(String.format("key: %s does not exist", key));
+
+        leaf.remove(pos);
+        size--;
+        modCount++;
+
+        rebalanceUpward(leaf, path);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void rebalanceUpward(Leaf<V> leaf, Path<V> path){
+        if(path.depth > 0 && leaf.count < minLeafCount){
+            fixLeaf(leaf, path.nodes[path.depth - 1], path.indexes[path.depth - 1]);
+
+            for (int d = path.depth - 1; d > 0; d--) {
+                var inner = path.nodes[d];
+                if(inner.count >= minChildCount)
+                    break;
+                fixInner(inner, path.nodes[d - 1], path.indexes[d - 1]);
+            }
+        }
+
+        while(root instanceof Inner && ((Inner<V>) root).count == 1){
+            root = ((Inner<V>) root).children[0];
+            height--;
+        }
+        if(root instanceof Leaf && ((Leaf<V>) root).count == 0){
+            root = null;
+            head = null;
+            tail = null;
+            height = 0;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void fixLeaf(Leaf<V> leaf, Inner<V> parent, int i){
+        var left = i > 0 ? (Leaf<V>) parent.children[i - 1] : null;
+        var right = i + 1 < parent.count ? (Leaf<V>) parent.children[i + 1] : null;
+
+        if(left != null && left.count > minLeafCount){
+            leaf.insert(0, left.values[left.count - 1]);
+            left.remove(left.count - 1);
+            parent.separators[i - 1] = leaf.values[0];
+        } else if(right != null && right.count > minLeafCount){
+            leaf.insert(leaf.count, right.values[0]);
+            right.remove(0);
+            parent.separators[i] = right.values[0];
+        } else if(left != null){
+            mergeLeaves(left, leaf);
+            parent.removeChild(i);
+        } else {
+            mergeLeaves(leaf, right);
+            parent.removeChild(i + 1);
+        }
+    }
+
+    private void mergeLeaves(Leaf<V> left, Leaf<V> right){
+        System.arraycopy(right.values, 0, left.values, left.count, right.count);
+        left.count += right.count;
+        left.next = right.next;
+        if(right.next != null)
+            right.next.prev = left;
+        else
+            tail = left;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void fixInner(Inner<V> inner, Inner<V> parent, int i){
+        var left = i > 0 ? (Inner<V>) parent.children[i - 1] : null;
+        var right = i + 1 < parent.count ? (Inner<V>) parent.children[i + 1] : null;
+
+        if(left != null && left.count > minChildCount){
+            // rotate right through the parent separator
+            System.arraycopy(inner.children, 0, inner.children, 1, inner.count);
+            System.arraycopy(inner.separators, 0, inner.separators, 1, inner.count - 1);
+            inner.children[0] = left.children[left.count - 1];
+            inner.separators[0] = parent.separators[i - 1];
+            inner.count++;
+            parent.separators[i - 1] = left.separators[left.count - 2];
+            left.children[left.count - 1] = null;
+            left.separators[left.count - 2] = null;
+            left.count--;
+        } else if(right != null && right.count > minChildCount){
+            // rotate left through the parent separator
+            inner.children[inner.count] = right.children[0];
+            inner.separators[inner.count - 1] = parent.separators[i];
+            inner.count++;
+            parent.separators[i] = right.separators[0];
+            right.removeChildAt(0, 0);
+        } else if(left != null){
+            mergeInner(left, parent.separators[i - 1], inner);
+            parent.removeChild(i);
+        } else {
+            mergeInner(inner, parent.separators[i], right);
+            parent.removeChild(i + 1);
+        }
+    }
+
+    private static <V> void mergeInner(Inner<V> left, V separator, Inner<V> right){
+        left.separators[left.count - 1] = separator;
+        System.arraycopy(right.separators, 0, left.separators, left.count, right.count - 1);
+        System.arraycopy(right.children, 0, left.children, left.count, right.count);
+        left.count += right.count;
+    }
+
+    //--------------------- Traversing ---------------------
+
+    @Override
+    public void visitInOrder(Consumer<V> visitFct) {
+        var expected = modCount;
+        for (var leaf = head; leaf != null; leaf = leaf.next) {
+            for (int i = 0; i < leaf.count; i++) {
+                visitFct.accept(leaf.values[i]);
+                checkForComodification(expected);
+            }
+        }
+    }
+
+    /**
+     * Elems are stored only in the leaves (inner nodes hold separator copies),
+     * so pre-order visits the leaves in tree order, i.e. the same sequence as in-order
+     */
+    @Override
+    public void visitPreOrder(Consumer<V> visitFct) {
+        visitInOrder(visitFct);
+    }
+
+    /**
+     * See visitPreOrder: the same sequence as in-order
+     */
+    @Override
+    public void visitPostOrder(Consumer<V> visitFct) {
+        visitInOrder(visitFct);
+    }
+
+    @Override
+    public Iterator<V> toIterator() {
+        return new LeafIterator(head, 0, null);
+    }
+
+    /**
+     * See visitPreOrder: the same sequence as toIterator()
+     */
+    @Override
+    public Iterator<V> toPreOrderIterator() {
+        return toIterator();
+    }
+
+    //--------------------- Queries ---------------------
+
+    @Override
+    public V search(K key) {
+        var position = atLeast(key);
+        if(position == null)
+            return null;
+
+        var value = position.leaf.values[position.index];
+        return search.apply(key, value) == 0 ? value : null;
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        return search(key) != null;
+    }
+
+    @Override
+    public V floor(K key) {
+        return before(greaterThan(key));
+    }
+
+    @Override
+    public V ceiling(K key) {
+        return valueAt(atLeast(key));
+    }
+
+    @Override
+    public V lower(K key) {
+        return before(atLeast(key));
+    }
+
+    @Override
+    public V higher(K key) {
+        return valueAt(greaterThan(key));
+    }
+
+    @Override
+    public V min() {
+        return head == null ? null : head.values[0];
+    }
+
+    @Override
+    public V max() {
+        return tail == null ? null : tail.values[tail.count - 1];
+    }
+
+    @Override
+    public void visitRange(K lo, K hi, Consumer<V> visitFct) {
+        if(hi == null)
+            throw new NullPointerException();
+
+        var it = rangeIterator(lo, hi);
+        while(it.hasNext()){
+            visitFct.accept(it.next());
+        }
+    }
+
+    @Override
+    public Iterator<V> rangeIterator(K lo, K hi) {
+        if(hi == null)
+            throw new NullPointerException();
+
+        var start = atLeast(lo);
+        return start == null
+                ? new LeafIterator(null, 0, hi)
+                : new LeafIterator(start.leaf, start.index, hi);
+    }
+
+    //--------------------- Private ---------------------
+
+    // position of the first elem whose key is >= key (null if none)
+    @SuppressWarnings("unchecked")
+    private Position<V> atLeast(K key){
+        if(key == null)
+            throw new NullPointerException();
+        if(root == null)
+            return null;
+
+        var node = root;
+        while(node instanceof Inner){
+            var inner = (Inner<V>) node;
+            node = inner.children[childAtLeast(inner, key)];
+        }
+        var leaf = (Leaf<V>) node;
+        return positionOrNext(leaf, leafPositionAtLeast(leaf, key));
+    }
+
+    // position of the first elem whose key is > key (null if none)
+    @SuppressWarnings("unchecked")
+    private Position<V> greaterThan(K key){
+        if(key == null)
+            throw new NullPointerException();
+        if(root == null)
+            return null;
+
+        var node = root;
+        while(node instanceof Inner){
+            var inner = (Inner<V>) node;
+            var lo = 0;
+            var hi = inner.count - 1;
+            while(lo < hi){
+                var mid = (lo + hi) >>> 1;
+                if(search.apply(key, inner.separators[mid]) >= 0)
+                    lo = mid + 1;
+                else
+                    hi = mid;
+            }
+            node = inner.children[lo];
+        }
+
+        var leaf = (Leaf<V>) node;
+        var lo = 0;
+        var hi = leaf.count;
+        while(lo < hi){
+            var mid = (lo + hi) >>> 1;
+            if(search.apply(key, leaf.values[mid]) >= 0)
+                lo = mid + 1;
+            else
+                hi = mid;
+        }
+        return positionOrNext(leaf, lo);
+    }
+
+    private Position<V> positionOrNext(Leaf<V> leaf, int index){
+        if(index < leaf.count)
+            return new Position<>(leaf, index);
+        return leaf.next == null ? null : new Position<>(leaf.next, 0);
+    }
+
+    private V valueAt(Position<V> position){
+        return position == null ? null : position.leaf.values[position.index];
+    }
+
+    // elem just before "position" (null position means "after the last elem")
+    private V before(Position<V> position){
+        if(position == null)
+            return max();
+        if(position.index > 0)
+            return position.leaf.values[position.index - 1];
+
+        var prev = position.leaf.prev;
+        return prev == null ? null : prev.values[prev.count - 1];
+    }
+
+    // child holding the first elem whose key is >= key: number of separators < key
+    private int childAtLeast(Inner<V> inner, K key){
+        var lo = 0;
+        var hi = inner.count - 1;
+        while(lo < hi){
+            var mid = (lo + hi) >>> 1;
+            if(search.apply(key, inner.separators[mid]) > 0)
+                lo = mid + 1;
+            else
+                hi = mid;
+        }
+        return lo;
+    }
+
+    // child a new elem goes into (after equal elems): number of separators <= elem
+    private int childAfter(Inner<V> inner, V elem){
+        var lo = 0;
+        var hi = inner.count - 1;
+        while(lo < hi){
+            var mid = (lo + hi) >>> 1;
+            if(sort.compare(inner.separators[mid], elem) <= 0)
+                lo = mid + 1;
+            else
+                hi = mid;
+        }
+        return lo;
+    }
+
+    private int leafPositionAtLeast(Leaf<V> leaf, K key){
+        var lo = 0;
+        var hi = leaf.count;
+        while(lo < hi){
+            var mid = (lo + hi) >>> 1;
+            if(search.apply(key, leaf.values[mid]) > 0)
+                lo = mid + 1;
+            else
+                hi = mid;
+        }
+        return lo;
+    }
+
+    private int leafPositionAfter(Leaf<V> leaf, V elem){
+        var lo = 0;
+        var hi = leaf.count;
+        while(lo < hi){
+            var mid = (lo + hi) >>> 1;
+            if(sort.compare(leaf.values[mid], elem) <= 0)
+                lo = mid + 1;
+            else
+                hi = mid;
+        }
+        return lo;
+    }
+
+    private void checkForComodification(int expectedModCount){
+        if(modCount != expectedModCount)
+            throw new ConcurrentModificationException();
+    }
+
+    /**
+     * In-order iterator following the leaf links, optionally stopping after "hi"
+     */
+    private class LeafIterator implements Iterator<V> {
+
+        private final K hi;
+        private final int expectedModCount;
+        private Leaf<V> leaf;
+        private int index;
+
+        LeafIterator(Leaf<V> leaf, int index, K hi){
+            this.leaf = leaf;
+            this.index = index;
+            this.hi = hi;
+            this.expectedModCount = modCount;
+        }
+
+        @Override
+        public boolean hasNext() {
+            checkForComodification(expectedModCount);
+            return leaf != null && (hi == null || search.apply(hi, leaf.values[index]) >= 0);
+        }
+
+        @Override
+        public V next() {
+            if(!hasNext())
+                throw new NoSuchElementException();
+
+            var value = leaf.values[index++];
+            if(index == leaf.count){
+                leaf = leaf.next;
+                index = 0;
+            }
+            return value;
+        }
+    }
+
+    //--------------------- Nodes ---------------------
+
+    private static abstract class Node {
+        // leaf: number of elems, inner: number of children
+        int count;
+    }
+
+    private static class Leaf<V> extends Node {
+
+        private final V[] values;
+        private Leaf<V> prev, next;
+
+        @SuppressWarnings("unchecked")
+        Leaf(int fanout){
+            // one spare slot: a leaf may overflow by one before it is split
+            this.values = (V[]) new Object[fanout + 1];
+        }
+
+        void insert(int index, V value){
+            System.arraycopy(values, index, values, index + 1, count - index);
+            values[index] = value;
+            count++;
+        }
+
+        void remove(int index){
+            count--;
+            System.arraycopy(values, index + 1, values, index, count - index);
+            values[count] = null;
+        }
+
+        // move the upper half into a new leaf linked right after this one
+        Leaf<V> split(){
+            var right = new Leaf<V>(values.length - 1);
+            var keep = count / 2;
+            right.count = count - keep;
+            System.arraycopy(values, keep, right.values, 0, right.count);
+            Arrays.fill(values, keep, count, null);
+            count = keep;
+
+            right.next = next;
+            right.prev = this;
+            if(next != null)
+                next.prev = right;
+            next = right;
+            return right;
+        }
+
+        public String toString() {return Arrays.toString(Arrays.copyOf(values, count));}
+    }
+
+    private static class Inner<V> extends Node {
+
+        // separators[i] sits between children[i] and children[i + 1]
+        private final V[] separators;
+        private final Node[] children;
+        // separator handed to the parent by split()
+        private V promoted;
+
+        @SuppressWarnings("unchecked")
+        Inner(int fanout){
+            this.separators = (V[]) new Object[fanout];
+            this.children = new Node[fanout + 1];
+        }
+
+        void insertChild(int childIndex, V separator, Node child){
+            System.arraycopy(children, childIndex, children, childIndex + 1, count - childIndex);
+            System.arraycopy(separators, childIndex - 1, separators, childIndex, count - childIndex);
+            children[childIndex] = child;
+            separators[childIndex - 1] = separator;
+            count++;
+        }
+
+        // remove child "childIndex" and the separator on its left
+        void removeChild(int childIndex){
+            removeChildAt(childIndex, childIndex - 1);
+        }
+
+        void removeChildAt(int childIndex, int separatorIndex){
+            System.arraycopy(children, childIndex + 1, children, childIndex, count - childIndex - 1);
+            System.arraycopy(separators, separatorIndex + 1, separators, separatorIndex, count - separatorIndex - 2);
+            count--;
+            children[count] = null;
+            separators[count - 1] = null;
+        }
+
+        Inner<V> split(){
+            var right = new Inner<V>(separators.length);
+            var keep = count / 2;
+            right.count = count - keep;
+            System.arraycopy(children, keep, right.children, 0, right.count);
+            System.arraycopy(separators, keep, right.separators, 0, right.count - 1);
+            right.promoted = separators[keep - 1];
+
+            Arrays.fill(children, keep, count, null);
+            Arrays.fill(separators, keep - 1, count - 1, null);
+            count = keep;
+            return right;
+        }
+    }
+
+    // root-to-leaf path: inner nodes and the child index taken in each
+    private static class Path<V> {
+
+        private final Inner<V>[] nodes;
+        private final int[] indexes;
+        private int depth;
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Path(int height){
+            this.nodes = (Inner<V>[]) new Inner[Math.max(height - 1, 0)];
+            this.indexes = new int[nodes.length];
+        }
+
+        void push(Inner<V> node, int index){
+            nodes[depth] = node;
+            indexes[depth] = index;
+            depth++;
+        }
+
+        /**
+         * Move the path to the leaf after the current one and return it (null if none)
+         */
+        @SuppressWarnings("unchecked")
+        Leaf<V> advanceToNextLeaf(){
+            var d = depth - 1;
+            while(d >= 0 && indexes[d] + 1 >= nodes[d].count){
+                d--;
+            }
+            if(d < 0)
+                return null;
+
+            indexes[d]++;
+            var node = nodes[d].children[indexes[d]];
+            for (d++; d < depth; d++) {
+                nodes[d] = (Inner<V>) node;
+                indexes[d] = 0;
+                node = nodes[d].children[0];
+            }
+            return (Leaf<V>) node;
+        }
+    }
+
+    private static class Position<V> {
+
+        final Leaf<V> leaf;
+        final int index;
+
+        Position(Leaf<V> leaf, int index){
+            this.leaf = leaf;
+            this.index = index;
+        }
+    }
+}
@@ -147,6 +147,72 @@ public interface BstADT<K, V> {
     Iterator<V> toPreOrderIterator();
 
 
+    //--------------------- Ordered navigation (Optional) ---------------------
+    // "Greatest"/"least" refer to in-order position; keys are compared
+    // to elements with the tree's search function
+
+    /**
+     * Return the greatest elem whose key is less than or equal to param "key"
+     * If there is none, return null
+     */
+    default V floor(K key) {
+        throw notImplemented();
+    }
+
+    /**
+     * Return the least elem whose key is greater than or equal to param "key"
+     * If there is none, return null
+     */
+    default V ceiling(K key) {
+        throw notImplemented();
+    }
+
+    /**
+     * Return the greatest elem whose key is strictly less than param "key"
+     * If there is none, return null
+     */
+    default V lower(K key) {
+        throw notImplemented();
+    }
+
+    /**
+     * Return the least elem whose key is strictly greater than param "key"
+     * If there is none, return null
+     */
+    default V higher(K key) {
+        throw notImplemented();
+    }
+
+    /**
+     * Return the first elem relative to "in-order" (null if tree is empty)
+     */
+    default V min() {
+        throw notImplemented();
+    }
+
+    /**
+     * Return the last elem relative to "in-order" (null if tree is empty)
+     */
+    default V max() {
+        throw notImplemented();
+    }
+
+    /**
+     * Visit, in order, every elem whose key is between
+     * "lo" and "hi" (both inclusive)
+     */
+    default void visitRange(K lo, K hi, Consumer<V> visitFct) {
+        throw notImplemented();
+    }
+
+    /**
+     * Return in-order iterator over every elem whose key
+     * is between "lo" and "hi" (both inclusive)
+     */
+    default Iterator<V> rangeIterator(K lo, K hi) {
+        throw notImplemented();
+    }
+
     /**
      * This is real handy for debugging.
      * Do a nice print to console in
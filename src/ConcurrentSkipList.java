@@ -0,0 +1,457 @@
+package bst;
+
+import treepub.BstADT;
+
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+/**
+ * Thread-safe ordered structure implementing BstADT: a lazy skip list.
+ *
+ * Lookups, visits and iterators never lock; they walk the volatile next links
+ * and skip nodes that are logically removed (marked) or not yet fully linked,
+ * so readers never block writers.
+ * add and removeKey lock only the predecessors they change (optimistic
+ * validation, retry on conflict), so writers in different key ranges do not
+ * contend.
+ * Visits and iterators are weakly consistent: they reflect some state of the
+ * list at or after their start and never throw ConcurrentModificationException.
+ *
+ * Duplicates are allowed: every node also gets an insertion sequence number,
+ * so equal elems keep insertion order (like BST, later equal elems come after).
+ */
+public class ConcurrentSkipList<K,V> implements BstADT<K,V> {
+
+    private static final int MAX_LEVEL = 32;
+
+    private final Comparator<V> sort;
+    private final BiFunction<K, V, Integer> search;
+    private final SkipNode<V> head;
+    private final SkipNode<V> tail;
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicInteger size = new AtomicInteger();
+    private volatile int levelsInUse;
+
+
+    private ConcurrentSkipList(Comparator<V> aSortFct, BiFunction<K, V, Integer> aSearchFct) {
+        this.sort = aSortFct;
+        this.search = aSearchFct;
+        this.head = new SkipNode<>(null, Long.MIN_VALUE, MAX_LEVEL - 1);
+        this.tail = new SkipNode<>(null, Long.MAX_VALUE, MAX_LEVEL - 1);
+        for (int level = 0; level < MAX_LEVEL; level++) {
+            head.next.set(level, tail);
+        }
+        head.fullyLinked = true;
+        tail.fullyLinked = true;
+    }
+
+    public static <K, V> ConcurrentSkipList<K, V> fromSortFctSearchFct(Comparator<V> aSortFct, BiFunction<K, V, Integer> aSearchFct){
+        return new ConcurrentSkipList<>(aSortFct, aSearchFct);
+    }
+
+    @Override
+    public int size() {
+        return size.get();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Return the number of skip-list levels in use (the longest search path
+     * is proportional to it, as with the height of a tree)
+     */
+    @Override
+    public int height() {
+        return levelsInUse;
+    }
+
+    //--------------------- Adding ---------------------
+
+    @Override
+    public BstADT<K,V> add(V elem) {
+        if(elem == null)
+            throw new NullPointerException("cannot add null element");
+
+        var seq = sequence.incrementAndGet();
+        var topLevel = randomLevel();
+        // raise before linking: searches start at levelsInUse - 1, and findPosition must reach topLevel
+        raiseLevelsInUse(topLevel + 1);
+        SkipNode<V>[] preds = newNodeArray();
+        SkipNode<V>[] succs = newNodeArray();
+
+        while(true){
+            findPosition(elem, seq, preds, succs);
+
+            var highestLocked = -1;
+            try {
+                var valid = true;
+                for (int level = 0; valid && level <= topLevel; level++) {
+                    var pred = preds[level];
+                    var succ = succs[level];
+                    pred.lock.lock();
+                    highestLocked = level;
+                    valid = !pred.marked && !succ.marked && pred.next.get(level) == succ;
+                }
+                if(!valid)
+                    continue;
+
+                var node = new SkipNode<>(elem, seq, topLevel);
+                for (int level = 0; level <= topLevel; level++) {
+                    node.next.set(level, succs[level]);
+                }
+                for (int level = 0; level <= topLevel; level++) {
+                    preds[level].next.set(level, node);
+                }
+                node.fullyLinked = true;
+            } finally {
+                for (int level = 0; level <= highestLocked; level++) {
+                    preds[level].lock.unlock();
+                }
+            }
+
+            size.incrementAndGet();
+            return this;
+        }
+    }
+
+    //--------------------- Removing ---------------------
+
+    /**
+     * Remove the first (in order) elem matching key
+     * Throws NoSuchElementException if there is none
+     */
+    @Override
+    public void removeKey(K key) {
+        if(key == null)
+            throw new NullPointerException();
+
+        SkipNode<V>[] preds = newNodeArray();
+        SkipNode<V>[] succs = newNodeArray();
+
+        // claim a victim: the first live match whose mark we set ourselves
+        SkipNode<V> victim = null;
+        for (var node = atLeast(key); node != tail && search.apply(key, node.value) == 0; node = node.next.get(0)) {
+            if(!node.fullyLinked || node.marked)
+                continue;
+
+            node.lock.lock();
+            try {
+                if(!node.marked){
+                    node.marked = true;
+                    victim = node;
+                    break;
+                }
+            } finally {
+                node.lock.unlock();
+            }
+        }
+        if(victim == null)
+            throw new NoSuchElementException(String.format("key: %s does not exist", key));
+
+        while(true){
+            findPosition(victim.value, victim.seq, preds, succs);
+
+            var highestLocked = -1;
+            try {
+                var valid = true;
+                for (int level = 0; valid && level <= victim.topLevel; level++) {
+                    var pred = preds[level];
+                    pred.lock.lock();
+                    highestLocked = level;
+                    valid = !pred.marked && pred.next.get(level) == victim;
+                }
+                if(!valid)
+                    continue;
+
+                for (int level = victim.topLevel; level >= 0; level--) {
+                    preds[level].next.set(level, victim.next.get(level));
+                }
+            } finally {
+                for (int level = 0; level <= highestLocked; level++) {
+                    preds[level].lock.unlock();
+                }
+            }
+
+            size.decrementAndGet();
+            return;
+        }
+    }
+
+    //--------------------- Traversing ---------------------
+
+    @Override
+    public void visitInOrder(Consumer<V> visitFct) {
+        for (var node = firstLive(head.next.get(0)); node != tail; node = firstLive(node.next.get(0))) {
+            visitFct.accept(node.value);
+        }
+    }
+
+    /**
+     * A skip list has no tree shape, so pre-order is the same sequence as in-order
+     */
+    @Override
+    public void visitPreOrder(Consumer<V> visitFct) {
+        visitInOrder(visitFct);
+    }
+
+    /**
+     * A skip list has no tree shape, so post-order is the same sequence as in-order
+     */
+    @Override
+    public void visitPostOrder(Consumer<V> visitFct) {
+        visitInOrder(visitFct);
+    }
+
+    @Override
+    public Iterator<V> toIterator() {
+        return new LevelZeroIterator(head.next.get(0), null);
+    }
+
+    /**
+     * Same sequence as toIterator() (see visitPreOrder)
+     */
+    @Override
+    public Iterator<V> toPreOrderIterator() {
+        return toIterator();
+    }
+
+    //--------------------- Queries ---------------------
+
+    @Override
+    public V search(K key) {
+        var node = firstLive(atLeast(key));
+        return node != tail && search.apply(key, node.value) == 0 ? node.value : null;
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        return search(key) != null;
+    }
+
+    @Override
+    public V floor(K key) {
+        return liveBefore(after(key));
+    }
+
+    @Override
+    public V ceiling(K key) {
+        return valueOf(firstLive(atLeast(key)));
+    }
+
+    @Override
+    public V lower(K key) {
+        return liveBefore(atLeast(key));
+    }
+
+    @Override
+    public V higher(K key) {
+        return valueOf(firstLive(after(key)));
+    }
+
+    @Override
+    public V min() {
+        return valueOf(firstLive(head.next.get(0)));
+    }
+
+    @Override
+    public V max() {
+        return liveBefore(tail);
+    }
+
+    @Override
+    public void visitRange(K lo, K hi, Consumer<V> visitFct) {
+        if(hi == null)
+            throw new NullPointerException();
+
+        for (var node = firstLive(atLeast(lo)); node != tail && search.apply(hi, node.value) >= 0; node = firstLive(node.next.get(0))) {
+            visitFct.accept(node.value);
+        }
+    }
+
+    @Override
+    public Iterator<V> rangeIterator(K lo, K hi) {
+        if(hi == null)
+            throw new NullPointerException();
+        return new LevelZeroIterator(atLeast(lo), hi);
+    }
+
+    //--------------------- Private ---------------------
+
+    /**
+     * Fill preds/succs with the nodes just before/after position (value, seq) on every level in use
+     * (levels above levelsInUse only link head to tail, so every search starts below them)
+     */
+    private void findPosition(V value, long seq, SkipNode<V>[] preds, SkipNode<V>[] succs){
+        var pred = head;
+        for (int level = levelsInUse - 1; level >= 0; level--) {
+            var curr = pred.next.get(level);
+            while(compare(curr, value, seq) < 0){
+                pred = curr;
+                curr = pred.next.get(level);
+            }
+            preds[level] = pred;
+            succs[level] = curr;
+        }
+    }
+
+    // order of "node" relative to position (value, seq); the sentinels are -inf / +inf
+    private int compare(SkipNode<V> node, V value, long seq){
+        if(node == head)
+            return -1;
+        if(node == tail)
+            return 1;
+
+        var c = sort.compare(node.value, value);
+        return c != 0 ? c : Long.compare(node.seq, seq);
+    }
+
+    // first node (live or not) whose elem key is >= key, or tail
+    private SkipNode<V> atLeast(K key){
+        if(key == null)
+            throw new NullPointerException();
+
+        var pred = head;
+        for (int level = levelsInUse - 1; level >= 0; level--) {
+            var curr = pred.next.get(level);
+            while(curr != tail && search.apply(key, curr.value) > 0){
+                pred = curr;
+                curr = pred.next.get(level);
+            }
+        }
+        return pred.next.get(0);
+    }
+
+    // first node (live or not) whose elem key is > key, or tail
+    private SkipNode<V> after(K key){
+        if(key == null)
+            throw new NullPointerException();
+
+        var pred = head;
+        for (int level = levelsInUse - 1; level >= 0; level--) {
+            var curr = pred.next.get(level);
+            while(curr != tail && search.apply(key, curr.value) >= 0){
+                pred = curr;
+                curr = pred.next.get(level);
+            }
+        }
+        return pred.next.get(0);
+    }
+
+    private SkipNode<V> firstLive(SkipNode<V> node){
+        while(node != tail && (node.marked || !node.fullyLinked)){
+            node = node.next.get(0);
+        }
+        return node;
+    }
+
+    // value of the last live node positioned before "bound" (null if none)
+    private V liveBefore(SkipNode<V> bound){
+        SkipNode<V>[] preds = newNodeArray();
+        SkipNode<V>[] succs = newNodeArray();
+
+        var node = bound;
+        while(true){
+            if(node == tail){
+                var pred = head;
+                for (int level = levelsInUse - 1; level >= 0; level--) {
+                    for (var curr = pred.next.get(level); curr != tail; curr = pred.next.get(level)) {
+                        pred = curr;
+                    }
+                }
+                node = pred;
+            } else {
+                findPosition(node.value, node.seq, preds, succs);
+                node = preds[0];
+            }
+
+            if(node == head)
+                return null;
+            if(!node.marked && node.fullyLinked)
+                return node.value;
+        }
+    }
+
+    private V valueOf(SkipNode<V> node){
+        return node == tail ? null : node.value;
+    }
+
+    // geometric distribution, p = 1/2
+    private int randomLevel(){
+        var bits = ThreadLocalRandom.current().nextInt();
+        var level = Integer.numberOfTrailingZeros(bits | (1 << (MAX_LEVEL - 1)));
+        return Math.min(level, MAX_LEVEL - 1);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <V> SkipNode<V>[] newNodeArray(){
+        return new SkipNode[MAX_LEVEL];
+    }
+
+    private void raiseLevelsInUse(int levels){
+        while(levels > levelsInUse){
+            synchronized (this){
+                if(levels > levelsInUse)
+                    levelsInUse = levels;
+            }
+        }
+    }
+
+    /**
+     * Weakly consistent in-order iterator over the bottom level, optionally stopping after "hi"
+     */
+    private class LevelZeroIterator implements Iterator<V> {
+
+        private final K hi;
+        private SkipNode<V> next;
+
+        LevelZeroIterator(SkipNode<V> first, K hi){
+            this.next = firstLive(first);
+            this.hi = hi;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != tail && (hi == null || search.apply(hi, next.value) >= 0);
+        }
+
+        @Override
+        public V next() {
+            if(!hasNext())
+                throw new NoSuchElementException();
+
+            var value = next.value;
+            next = firstLive(next.next.get(0));
+            return value;
+        }
+    }
+
+    private static class SkipNode<V> {
+
+        private final V value;
+        private final long seq;
+        private final int topLevel;
+        private final AtomicReferenceArray<SkipNode<V>> next;
+        private final ReentrantLock lock = new ReentrantLock();
+        // logically removed / linked on every level up to topLevel
+        private volatile boolean marked;
+        private volatile boolean fullyLinked;
+
+        SkipNode(V value, long seq, int topLevel) {
+            this.value = value;
+            this.seq = seq;
+            this.topLevel = topLevel;
+            this.next = new AtomicReferenceArray<>(topLevel + 1);
+        }
+
+        public String toString() {return String.valueOf(this.value);}
+    }
+}
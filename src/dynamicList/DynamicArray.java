@@ -13,19 +13,55 @@
 package dynamicList;
 
 
+import snapshot.ElementCodec;
+import snapshot.Snapshot;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StreamCorruptedException;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
 
 public class DynamicArray<E> implements DynamicList<E> {
 	
     //---------------------------------
     // Instance Variables	
 	
+	private static final int DEFAULT_CAP = 20;
+	static final int MAX_CAP = Integer.MAX_VALUE - 8;
+	// parallel bulk operations never split below PARALLEL_LEAF_SIZE elements,
+	// and otherwise aim for LEAVES_PER_WORKER index ranges per pool thread
+	private static final int PARALLEL_LEAF_SIZE = 1 << 13;
+	private static final int LEAVES_PER_WORKER = 4;
+	// readFrom presizes from the (not yet checksummed) saved size only up to this many slots
+	private static final int SNAPSHOT_PRESIZE_LIMIT = 1 << 16;
+
 	private E[] fixedArray;//sensitive ivar (access only via privateGetFixedArray and privateSetFixedArray)
 	private int capacity;
 	private int size;
+	private final int initialCapacity;
+	private final GrowthPolicy growthPolicy;
+	private final boolean autoShrink;
+	private ForkJoinPool forkJoinPool = ForkJoinPool.commonPool();
 
 	private int getCapacity() {
 		return capacity;
@@ -59,7 +95,28 @@ public class DynamicArray<E> implements DynamicList<E> {
         Static factory constructor
         Usage:
             let darray = DynamicArray.newEmpty(); */
-        return new DynamicArray<>();
+        return new DynamicArray<>(DEFAULT_CAP, GrowthPolicy.DOUBLING, false);
+    }
+
+    public static <T> DynamicArray<T> withCapacity(int initCapacity) {
+        /* Return a new empty DynamicArray that holds "initCapacity" elements before growing
+        Usage (presize for a known bulk load):
+            let darray = DynamicArray.withCapacity(100_000); */
+        return new DynamicArray<>(initCapacity, GrowthPolicy.DOUBLING, false);
+    }
+
+    public static <T> DynamicArray<T> withCapacityGrowthPolicy(int initCapacity, GrowthPolicy aGrowthPolicy) {
+        /* Return a new empty DynamicArray that grows with "aGrowthPolicy"
+        e.g.,
+            let darray = DynamicArray.withCapacityGrowthPolicy(16, GrowthPolicy.fixedIncrement(1024)) */
+        return new DynamicArray<>(initCapacity, aGrowthPolicy, false);
+    }
+
+    public static <T> DynamicArray<T> withCapacityGrowthPolicyAutoShrink(int initCapacity, GrowthPolicy aGrowthPolicy, boolean autoShrink) {
+        /* As withCapacityGrowthPolicy; if "autoShrink" is true, the array halves its capacity
+        (never below "initCapacity") whenever removals leave it less than a quarter full,
+        and removeAll drops back to "initCapacity" */
+        return new DynamicArray<>(initCapacity, aGrowthPolicy, autoShrink);
     }
     
     public static <T> DynamicArray<T> from(T[] aFixedArray) {
@@ -67,7 +124,7 @@ public class DynamicArray<E> implements DynamicList<E> {
         Static factory constructor
         e.g.,
             let a = DynamicArray.from([10, 20, 30, 40]) */
-    	DynamicArray<T> dynamic = new DynamicArray<>();
+    	DynamicArray<T> dynamic = new DynamicArray<>(Math.max(aFixedArray.length, DEFAULT_CAP), GrowthPolicy.DOUBLING, false);
     	dynamic.addFixedArray(aFixedArray);
         return dynamic;
     }	
@@ -75,7 +132,15 @@ public class DynamicArray<E> implements DynamicList<E> {
     //---------------------------------
     // Private Constructors
     
-	private DynamicArray() {
+	private DynamicArray(int initCapacity, GrowthPolicy aGrowthPolicy, boolean autoShrink) {
+		if (initCapacity < 0)
+			throw new IllegalArgumentException("capacity must be greater than zero");
+		if (aGrowthPolicy == null)
+			throw new NullPointerException("growth policy cannot be equal to null");
+
+		this.initialCapacity = initCapacity;
+		this.growthPolicy = aGrowthPolicy;
+		this.autoShrink = autoShrink;
 		initialize();
 	}
 
@@ -190,9 +255,7 @@ public class DynamicArray<E> implements DynamicList<E> {
 	@Override
 	public void addLast(E newData) {
 
-		if(privateGetFixedArray().length == this.size()){
-			this.privateSetFixedArray(Arrays.copyOf(privateGetFixedArray(), setCapacity(2 * capacity)));
-		}
+		ensureCapacity(size() + 1);
 		this.privateGetFixedArray()[size()] = newData;
 		setSize(size()+1);
 	}
@@ -214,8 +277,10 @@ public class DynamicArray<E> implements DynamicList<E> {
 	@Override
 	public void addAll(DynamicList<E> other) {
 		// Add all elements from "otherDynList" into "this" list
-		for(int i = 0; i < other.size(); i++){
-			this.add(other.get(i));
+		// Presize once, then iterate (instead of other.get(i)) so a linked "other" is not walked once per index
+		ensureCapacity(size() + other.size());
+		for(E elem : other){
+			this.add(elem);
 		}
 	}	
 		
@@ -252,15 +317,13 @@ public class DynamicArray<E> implements DynamicList<E> {
 		If "insertIndex" is invalid, throws exception:
 			"(insert) Index %d is out of bounds" */
 
-		ifOutOfBounds(insertion);
-
-		final var arr = this.privateGetFixedArray();
-
+		if (insertion < 0 || insertion > this.size())
+			throw new RuntimeException(String.format("(insert) Index %d is out of bounds", insertion));
 
 		final int size = size();
-		if(size() == arr.length)
-			this.privateSetFixedArray(Arrays.copyOf(privateGetFixedArray(), setCapacity(2 * getCapacity())));
-		System.arraycopy(arr, insertion, this.privateGetFixedArray(), insertion + 1, size() - insertion);
+		ensureCapacity(size + 1);
+		final var arr = this.privateGetFixedArray();
+		System.arraycopy(arr, insertion, arr, insertion + 1, size - insertion);
 
 		this.privateGetFixedArray()[insertion] = newData;
 		setSize(size +1);
@@ -274,11 +337,15 @@ public class DynamicArray<E> implements DynamicList<E> {
 	public void removeAll() {
 		/* Reset the list so it is empty.
 		If list is already empty, then do nothing
-		No action need be performed on individual elements. */
+		The backing array is kept (only the references are cleared) so a
+		refill does not grow again; with autoShrink it drops to the initial capacity. */
 
-		if(this.privateGetFixedArray().length != 0){
+		if (autoShrink) {
 			initialize();
+			return;
 		}
+		Arrays.fill(this.privateGetFixedArray(), 0, size(), null);
+		setSize(0);
 	}
 
 	@Override
@@ -335,6 +402,283 @@ public class DynamicArray<E> implements DynamicList<E> {
 	}	
 	
 	
+	//---------------------------------
+	// Capacity
+
+	public int capacity() {
+		// Return the number of elements the backing array holds before it must grow
+		return getCapacity();
+	}
+
+	public void ensureCapacity(int minCapacity) {
+		/* Grow (per the growth policy) so at least "minCapacity" elements fit
+		Does nothing if they already fit */
+		if (minCapacity <= getCapacity())
+			return;
+		if (minCapacity > MAX_CAP)
+			throw new IllegalStateException("array cannot grow beyond " + MAX_CAP + " elements");
+
+		var newCapacity = growthPolicy.nextCapacity(getCapacity());
+		if (newCapacity < minCapacity || newCapacity > MAX_CAP)
+			newCapacity = Math.max(minCapacity, Math.min(newCapacity, MAX_CAP));
+		resizeTo(newCapacity);
+	}
+
+	public void trimToSize() {
+		// Release unused slots: capacity becomes size
+		if (getCapacity() > size())
+			resizeTo(size());
+	}
+
+	//---------------------------------
+	// Parallel bulk operations
+	/* These split [0, size) into index ranges and run them on the configured
+	ForkJoinPool (the common pool by default); lists shorter than one range
+	run on the calling thread. The list must not be modified by other code
+	while one of them runs. */
+
+	public void setForkJoinPool(ForkJoinPool aPool) {
+		if (aPool == null)
+			throw new NullPointerException("pool cannot be equal to null");
+		this.forkJoinPool = aPool;
+	}
+
+	public ForkJoinPool getForkJoinPool() {
+		return forkJoinPool;
+	}
+
+	@SuppressWarnings("unchecked")
+	public void parallelSort(Comparator<? super E> comparator) {
+		/* Sort in place (stable) with a parallel merge sort: ranges of leafSize(n)
+		are sorted with Arrays.sort, then merged pairwise through one scratch array
+		A null "comparator" sorts by natural ordering at every size, as Arrays.sort does */
+		final Comparator<? super E> order = comparator != null
+				? comparator
+				: (Comparator<? super E>) (Comparator<?>) Comparator.<Comparable<Object>>naturalOrder();
+		final var arr = this.privateGetFixedArray();
+		final var n = size();
+		if (n <= PARALLEL_LEAF_SIZE) {
+			Arrays.sort(arr, 0, n, order);
+			return;
+		}
+		forkJoinPool.invoke(new SortTask<>(arr, new Object[n], 0, n, leafSize(n), order));
+	}
+
+	public int parallelFind(Predicate<? super E> searchFct) {
+		/* Return the lowest index whose element matches (same result as find), or -1
+		Ranges above an index already found are skipped */
+		final var arr = this.privateGetFixedArray();
+		final var lowest = new AtomicInteger(Integer.MAX_VALUE);
+		runInRanges((lo, hi) -> {
+			for (int i = lo; i < hi && i < lowest.get(); i++) {
+				if (searchFct.test(arr[i])) {
+					lowest.accumulateAndGet(i, Math::min);
+					return;
+				}
+			}
+		});
+		return lowest.get() == Integer.MAX_VALUE ? -1 : lowest.get();
+	}
+
+	public void parallelForEach(Consumer<? super E> action) {
+		/* Apply "action" to every element, in no particular order */
+		final var arr = this.privateGetFixedArray();
+		runInRanges((lo, hi) -> {
+			for (int i = lo; i < hi; i++)
+				action.accept(arr[i]);
+		});
+	}
+
+	public void parallelReplaceAll(UnaryOperator<E> operator) {
+		/* Replace every element with the result of "operator" on it */
+		final var arr = this.privateGetFixedArray();
+		runInRanges((lo, hi) -> {
+			for (int i = lo; i < hi; i++)
+				arr[i] = operator.apply(arr[i]);
+		});
+	}
+
+	public E parallelReduce(E identity, BinaryOperator<E> accumulator) {
+		/* Fold the elements in index order; "accumulator" must be associative
+		and "identity" an identity for it (each range starts from it) */
+		final var n = size();
+		final var task = new ReduceTask<>(this.privateGetFixedArray(), 0, n, leafSize(n), identity, accumulator);
+		return n <= PARALLEL_LEAF_SIZE ? task.compute() : forkJoinPool.invoke(task);
+	}
+
+	private void runInRanges(RangeBody body) {
+		final var n = size();
+		if (n <= PARALLEL_LEAF_SIZE) {
+			body.run(0, n);
+			return;
+		}
+		forkJoinPool.invoke(new RangeAction(0, n, leafSize(n), body));
+	}
+
+	private int leafSize(int n) {
+		return Math.max(PARALLEL_LEAF_SIZE, n / (forkJoinPool.getParallelism() * LEAVES_PER_WORKER));
+	}
+
+	@FunctionalInterface
+	private interface RangeBody {
+		void run(int lo, int hi);
+	}
+
+	private static final class RangeAction extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private final int lo, hi, leaf;
+		private final RangeBody body;
+
+		RangeAction(int lo, int hi, int leaf, RangeBody body) {
+			this.lo = lo;
+			this.hi = hi;
+			this.leaf = leaf;
+			this.body = body;
+		}
+
+		@Override
+		protected void compute() {
+			if (hi - lo <= leaf) {
+				body.run(lo, hi);
+				return;
+			}
+			// left half first, so lower ranges finish (and prune parallelFind) early
+			final var mid = (lo + hi) >>> 1;
+			invokeAll(new RangeAction(lo, mid, leaf, body), new RangeAction(mid, hi, leaf, body));
+		}
+	}
+
+	private static final class ReduceTask<E> extends RecursiveTask<E> {
+		private static final long serialVersionUID = 1L;
+		private final E[] arr;
+		private final int lo, hi, leaf;
+		private final E identity;
+		private final BinaryOperator<E> accumulator;
+
+		ReduceTask(E[] arr, int lo, int hi, int leaf, E identity, BinaryOperator<E> accumulator) {
+			this.arr = arr;
+			this.lo = lo;
+			this.hi = hi;
+			this.leaf = leaf;
+			this.identity = identity;
+			this.accumulator = accumulator;
+		}
+
+		@Override
+		protected E compute() {
+			if (hi - lo <= leaf) {
+				var result = identity;
+				for (int i = lo; i < hi; i++)
+					result = accumulator.apply(result, arr[i]);
+				return result;
+			}
+			final var mid = (lo + hi) >>> 1;
+			final var right = new ReduceTask<>(arr, mid, hi, leaf, identity, accumulator);
+			right.fork();
+			final var left = new ReduceTask<>(arr, lo, mid, leaf, identity, accumulator).compute();
+			return accumulator.apply(left, right.join());
+		}
+	}
+
+	private static final class SortTask<E> extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private final E[] arr;
+		// scratch space for merges, as long as the array: tasks use disjoint [lo, hi) ranges of it
+		private final Object[] buffer;
+		private final int lo, hi, leaf;
+		private final Comparator<? super E> comparator;
+
+		SortTask(E[] arr, Object[] buffer, int lo, int hi, int leaf, Comparator<? super E> comparator) {
+			this.arr = arr;
+			this.buffer = buffer;
+			this.lo = lo;
+			this.hi = hi;
+			this.leaf = leaf;
+			this.comparator = comparator;
+		}
+
+		@Override
+		protected void compute() {
+			if (hi - lo <= leaf) {
+				Arrays.sort(arr, lo, hi, comparator);
+				return;
+			}
+			final var mid = (lo + hi) >>> 1;
+			invokeAll(new SortTask<>(arr, buffer, lo, mid, leaf, comparator),
+					new SortTask<>(arr, buffer, mid, hi, leaf, comparator));
+			merge(mid);
+		}
+
+		@SuppressWarnings("unchecked")
+		private void merge(int mid) {
+			/* Merge the sorted runs [lo, mid) and [mid, hi); on ties the left element
+			goes first, which keeps the sort stable */
+			if (comparator.compare(arr[mid - 1], arr[mid]) <= 0)
+				return;
+
+			/* move the left run aside; the write position never passes the right run's read position */
+			System.arraycopy(arr, lo, buffer, lo, mid - lo);
+			int i = lo, j = mid, k = lo;
+			while (i < mid && j < hi) {
+				if (comparator.compare(arr[j], (E) buffer[i]) < 0)
+					arr[k++] = arr[j++];
+				else
+					arr[k++] = (E) buffer[i++];
+			}
+			/* whatever is left of the right run is already in place */
+			System.arraycopy(buffer, i, arr, k, mid - i);
+		}
+	}
+
+	//---------------------------------
+	// Snapshot
+
+	public void writeTo(OutputStream out, ElementCodec<E> codec) throws IOException {
+		/* Write a checksummed binary snapshot of this list (format: see snapshot.Snapshot)
+		Payload: size, then per element a presence flag (elements may be null) and the encoded element */
+		Snapshot.write(out, Snapshot.DYNAMIC_ARRAY, data -> {
+			final var arr = this.privateGetFixedArray();
+			final var n = size();
+			data.writeInt(n);
+			for (int i = 0; i < n; i++) {
+				data.writeBoolean(arr[i] != null);
+				if (arr[i] != null)
+					codec.write(arr[i], data);
+			}
+		});
+	}
+
+	public void writeTo(WritableByteChannel out, ElementCodec<E> codec) throws IOException {
+		writeTo(Channels.newOutputStream(out), codec);
+	}
+
+	public static <T> DynamicArray<T> readFrom(InputStream in, ElementCodec<T> codec) throws IOException {
+		/* Return the list saved by writeTo, allocated once at its saved size when that
+		is at most SNAPSHOT_PRESIZE_LIMIT (larger lists grow as their elements are read,
+		so a corrupt size cannot allocate memory the stream does not back)
+		Throws StreamCorruptedException if the snapshot is invalid */
+		return Snapshot.read(in, Snapshot.DYNAMIC_ARRAY, data -> {
+			final var n = data.readInt();
+			if (n < 0 || n > MAX_CAP)
+				throw new StreamCorruptedException("snapshot list size is invalid: " + n);
+			DynamicArray<T> list = new DynamicArray<>(Math.max(Math.min(n, SNAPSHOT_PRESIZE_LIMIT), DEFAULT_CAP), GrowthPolicy.DOUBLING, false);
+			var arr = list.privateGetFixedArray();
+			for (int i = 0; i < n; i++) {
+				if (i == arr.length) {
+					list.ensureCapacity(i + 1);
+					arr = list.privateGetFixedArray();
+				}
+				arr[i] = data.readBoolean() ? codec.read(data) : null;
+			}
+			list.setSize(n);
+			return list;
+		});
+	}
+
+	public static <T> DynamicArray<T> readFrom(ReadableByteChannel in, ElementCodec<T> codec) throws IOException {
+		return readFrom(Channels.newInputStream(in), codec);
+	}
+
 	//---------------------------------
 	// Convenience	
 
@@ -363,15 +707,41 @@ public class DynamicArray<E> implements DynamicList<E> {
 		return Arrays.toString(printables.toArray()) + postfix;
 	}
 
+	@Override
+	public Iterator<E> iterator() {
+		return new Iterator<>() {
+			int index = 0;
+
+			@Override
+			public boolean hasNext() {
+				return index < size();
+			}
+
+			@Override
+			public E next() {
+				if (!hasNext())
+					throw new NoSuchElementException();
+				return privateGetFixedArray()[index++];
+			}
+		};
+	}
+
+	@Override
+	public Spliterator<E> spliterator() {
+		/* Return spliterator that splits by index range over the backing array
+		(SIZED, SUBSIZED and ORDERED); the list must not change while it is in use */
+		return Spliterators.spliterator(privateGetFixedArray(), 0, size(), Spliterator.ORDERED);
+	}
+
 	//---------------------------------
 	// Initializing
 
 
+	@SuppressWarnings("unchecked")
 	private void initialize() {
-		int DEFAULT_CAP = 20;
-		capacity = DEFAULT_CAP;
+		capacity = initialCapacity;
 		size = 0;
-		privateSetFixedArray((E[]) new Object[DEFAULT_CAP]);
+		privateSetFixedArray((E[]) new Object[initialCapacity]);
 	}
 	
 	
@@ -399,6 +769,14 @@ public class DynamicArray<E> implements DynamicList<E> {
 		}
 		this.privateGetFixedArray()[newSize] = null;
 		setSize(newSize);
+
+		// low-water mark: below a quarter full, halve (never below the initial capacity)
+		if (autoShrink && newSize < getCapacity() / 4 && getCapacity() > initialCapacity)
+			resizeTo(Math.max(getCapacity() / 2, initialCapacity));
+	}
+
+	private void resizeTo(int newCapacity) {
+		this.privateSetFixedArray(Arrays.copyOf(privateGetFixedArray(), setCapacity(newCapacity)));
 	}
 
 	private void checkRangeForSubList(int startIndex, int stopIndex, int size){
@@ -7,7 +7,11 @@ package dynamicList; /**
 
 import java.util.Iterator;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public interface DynamicList<E> extends Iterable<E> {
 
@@ -163,6 +167,29 @@ public interface DynamicList<E> extends Iterable<E> {
 	 */
 	default Iterator<E>	iterator() { throw notImplemented(); }
 
+	/**
+	 * Return spliterator on this list (SIZED and ORDERED, built on iterator())
+	 * Array-backed lists override it to split by index range without copying
+	 */
+	@Override
+	default Spliterator<E> spliterator() {
+		return Spliterators.spliterator(iterator(), size(), Spliterator.ORDERED);
+	}
+
+	/**
+	 * Return sequential stream on the elements of this list (no copy is made)
+	 */
+	default Stream<E> stream() {
+		return StreamSupport.stream(spliterator(), false);
+	}
+
+	/**
+	 * Return parallel stream on the elements of this list (split by spliterator())
+	 */
+	default Stream<E> parallelStream() {
+		return StreamSupport.stream(spliterator(), true);
+	}
+
 	private static RuntimeException notImplemented() {
 		return new RuntimeException("Not Implemented");
 	}
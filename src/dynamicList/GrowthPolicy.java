@@ -0,0 +1,40 @@
+package dynamicList;
+
+/**
+ * How a DynamicArray computes its next capacity when it is full.
+ * Implementations must return a value larger than "currentCapacity" and must
+ * not overflow: the policies below compute in long and stop at the maximum
+ * array length (DynamicArray also clamps whatever a policy returns).
+ */
+@FunctionalInterface
+public interface GrowthPolicy {
+
+	/**
+	 * Return the capacity to grow to from "currentCapacity"
+	 */
+	int nextCapacity(int currentCapacity);
+
+	/**
+	 * Multiply the capacity by 2 (fewest copies, up to 50% unused slots)
+	 */
+	GrowthPolicy DOUBLING = current -> clamp(Math.max((long) current << 1, current + 1L));
+
+	/**
+	 * Multiply the capacity by 1.5 (more copies, up to 33% unused slots)
+	 */
+	GrowthPolicy ONE_AND_A_HALF = current -> clamp(Math.max(current + (long) (current >> 1), current + 1L));
+
+	/**
+	 * Add "increment" slots each time (tight memory, but a bulk load of n
+	 * elements costs O(n^2 / increment) copying)
+	 */
+	static GrowthPolicy fixedIncrement(int increment) {
+		if (increment <= 0)
+			throw new IllegalArgumentException("increment must be greater than zero");
+		return current -> clamp((long) current + increment);
+	}
+
+	private static int clamp(long capacity) {
+		return (int) Math.min(capacity, DynamicArray.MAX_CAP);
+	}
+}
@@ -0,0 +1,257 @@
+package dynamicList;
+
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+/**
+ * DynamicArray specialized for int elements.
+ *
+ * Elements are stored unboxed in a int[], so each takes 4 bytes instead of
+ * a reference plus a boxed Integer, and loops over them (find, forEach, toArray)
+ * run over a flat primitive array.
+ * asDynamicList() gives a boxed DynamicList<Integer> view for existing callers.
+ */
+public class IntDynamicArray {
+
+	private static final int DEFAULT_CAP = 20;
+	private static final int MAX_CAP = Integer.MAX_VALUE - 8;
+
+	private int[] elems;
+	private int size;
+
+	//---------------------------------
+	// Public Constructors
+
+	public static IntDynamicArray newEmpty() {
+		return new IntDynamicArray(DEFAULT_CAP);
+	}
+
+	public static IntDynamicArray withCapacity(int initCapacity) {
+		return new IntDynamicArray(initCapacity);
+	}
+
+	public static IntDynamicArray from(int[] aFixedArray) {
+		/* Return a new IntDynamicArray holding a copy of "aFixedArray" */
+		var dynamic = new IntDynamicArray(aFixedArray.length);
+		System.arraycopy(aFixedArray, 0, dynamic.elems, 0, aFixedArray.length);
+		dynamic.size = aFixedArray.length;
+		return dynamic;
+	}
+
+	private IntDynamicArray(int initCapacity) {
+		if (initCapacity < 0)
+			throw new IllegalArgumentException("capacity must be greater than zero");
+		this.elems = new int[initCapacity];
+		this.size = 0;
+	}
+
+	//---------------------------------
+	// Basic Statistics
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public int capacity() {
+		return elems.length;
+	}
+
+	//---------------------------------
+	// Accessing
+
+	public int get(int index) {
+		ifOutOfBounds(index);
+		return elems[index];
+	}
+
+	public int first() {
+		ifEmpty("first");
+		return elems[0];
+	}
+
+	public int last() {
+		ifEmpty("last");
+		return elems[size - 1];
+	}
+
+	public int find(IntPredicate searchFct) {
+		/* Return index of first matching element (where searchFct outputs true)
+		Return -1 if no match */
+		final var arr = elems;
+		for (int i = 0; i < size; i++) {
+			if (searchFct.test(arr[i]))
+				return i;
+		}
+		return -1;
+	}
+
+	public void forEach(IntConsumer action) {
+		final var arr = elems;
+		for (int i = 0; i < size; i++)
+			action.accept(arr[i]);
+	}
+
+	//---------------------------------
+	// Adding Elements
+
+	public void add(int newElem) {
+		ensureCapacity(size + 1);
+		elems[size++] = newElem;
+	}
+
+	public void addFirst(int newElem) {
+		insert(0, newElem);
+	}
+
+	public void addAll(IntDynamicArray other) {
+		ensureCapacity(size + other.size);
+		System.arraycopy(other.elems, 0, elems, size, other.size);
+		size += other.size;
+	}
+
+	public int set(int index, int newElem) {
+		/* Replace elem at "index" and return the previous one */
+		ifOutOfBounds(index);
+		var old = elems[index];
+		elems[index] = newElem;
+		return old;
+	}
+
+	public void insert(int insertion, int newElem) {
+		/* Shift elements at "insertion" and after one to the right and store "newElem" there
+		Valid "insertion" values are between 0 and "size" */
+		if (insertion < 0 || insertion > size)
+			throw new RuntimeException(String.format("(insert) Index %d is out of bounds", insertion));
+
+		ensureCapacity(size + 1);
+		System.arraycopy(elems, insertion, elems, insertion + 1, size - insertion);
+		elems[insertion] = newElem;
+		size++;
+	}
+
+	//---------------------------------
+	// Removing Elements
+
+	public int removeIndex(int index) {
+		ifOutOfBounds(index);
+		var old = elems[index];
+		System.arraycopy(elems, index + 1, elems, index, size - index - 1);
+		size--;
+		return old;
+	}
+
+	public int removeFirst() {
+		ifEmpty("removeFirst");
+		return removeIndex(0);
+	}
+
+	public int removeLast() {
+		ifEmpty("removeLast");
+		return elems[--size];
+	}
+
+	public void removeAll() {
+		/* Reset the list so it is empty (the backing array is kept) */
+		size = 0;
+	}
+
+	//---------------------------------
+	// Capacity
+
+	public void ensureCapacity(int minCapacity) {
+		if (minCapacity <= elems.length)
+			return;
+		if (minCapacity > MAX_CAP)
+			throw new IllegalStateException("array cannot grow beyond " + MAX_CAP + " elements");
+
+		var newCapacity = (int) Math.min(Math.max((long) elems.length << 1, minCapacity), MAX_CAP);
+		elems = Arrays.copyOf(elems, newCapacity);
+	}
+
+	public void trimToSize() {
+		if (elems.length > size)
+			elems = Arrays.copyOf(elems, size);
+	}
+
+	//---------------------------------
+	// Convenience
+
+	public int[] toArray() {
+		/* Return a copy of the elements (length == size) */
+		return Arrays.copyOf(elems, size);
+	}
+
+	public IntStream stream() {
+		/* Return stream over the elements (split by index range, no boxing or copy) */
+		return Arrays.stream(elems, 0, size);
+	}
+
+	public IntStream parallelStream() {
+		return stream().parallel();
+	}
+
+	public DynamicList<Integer> asDynamicList() {
+		/* Return a live boxed view of this array (reads box, writes unbox) */
+		return new BoxedView();
+	}
+
+	@Override
+	public String toString() {
+		int max = 4;
+		if (size > max)
+			return Arrays.toString(Arrays.copyOf(elems, max + 1)) + "... (size=" + size + ")";
+		return Arrays.toString(toArray());
+	}
+
+	// utils
+
+	private void ifOutOfBounds(int index) {
+		if ((index < 0) || !(index < size))
+			throw new RuntimeException(String.format("Index %d out of bounds", index));
+	}
+
+	private void ifEmpty(String message) {
+		if (isEmpty())
+			throw new RuntimeException(String.format("(%s) Attempted to access element in empty list", message));
+	}
+
+	private class BoxedView extends PrimitiveListView<Integer> {
+
+		@Override
+		public int size() {
+			return size;
+		}
+
+		@Override
+		public Integer get(int index) {
+			return IntDynamicArray.this.get(index);
+		}
+
+		@Override
+		public Integer set(int index, Integer newElem) {
+			return IntDynamicArray.this.set(index, newElem);
+		}
+
+		@Override
+		public void insert(int insertIndex, Integer newElem) {
+			IntDynamicArray.this.insert(insertIndex, newElem);
+		}
+
+		@Override
+		public Integer removeIndex(int index) {
+			return IntDynamicArray.this.removeIndex(index);
+		}
+
+		@Override
+		public void removeAll() {
+			IntDynamicArray.this.removeAll();
+		}
+	}
+}
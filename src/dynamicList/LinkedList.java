@@ -366,9 +366,9 @@ public class LinkedList<E> implements DynamicList<E>{
     @Override
     public List<E> toNativeList() {
 
-        List<E> javaList = new ArrayList<>();
-        for (int i = 0; i < getSize(); i++) {
-            javaList.add(get(i));
+        List<E> javaList = new ArrayList<>(getSize());
+        for (var n = getHead(); n != null; n = n.getNext()) {
+            javaList.add(n.getData());
         }
         return javaList;
     }
@@ -0,0 +1,498 @@
+package dynamicList;
+
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Persistent vector implementation of DynamicList: a 32-way bit-partitioned
+ * trie (as in Clojure's PersistentVector) plus a tail array of up to 32 elements.
+ *
+ * snapshot() is O(1): it returns a second list sharing every node with this
+ * one. Later writes to either list copy only the path they touch (about
+ * log32(size) nodes), so a snapshot never changes and can be handed to reader
+ * threads (through any safe publication, e.g. a concurrent queue) without locks
+ * or copying.
+ *
+ * Each list owns an edit token, and nodes remember the token they were made
+ * with. A list changes nodes carrying its own token in place and copies the
+ * rest, so between two snapshots it behaves like a transient builder: bulk
+ * loads copy each node at most once.
+ *
+ * get/set/addLast/removeLast are O(log32 size). Positional insert/remove and
+ * the *First methods shift elements and are O(size); use RingBufferDeque for queues.
+ * A list itself (as opposed to its snapshots) is not thread-safe.
+ */
+public class PersistentArray<E> implements DynamicList<E> {
+
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK = WIDTH - 1;
+    private static final Node EMPTY_NODE = new Node(null, new Object[WIDTH]);
+
+    private Object edit;
+    private int size;
+    private int shift;
+    private Node root;
+    private Node tail;
+
+    private PersistentArray(int size, int shift, Node root, Node tail){
+        this.edit = new Object();
+        this.size = size;
+        this.shift = shift;
+        this.root = root;
+        this.tail = tail;
+    }
+
+    public static <T> PersistentArray<T> newEmpty(){
+        var list = new PersistentArray<T>(0, BITS, EMPTY_NODE, null);
+        list.tail = list.newNode();
+        return list;
+    }
+
+    public static <T> PersistentArray<T> from(T[] aFixedArray){
+        PersistentArray<T> list = newEmpty();
+        for (T elem : aFixedArray) {
+            list.addLast(elem);
+        }
+        return list;
+    }
+
+    /**
+     * Return an independent list with the current contents, in O(1).
+     * Neither list sees later changes made to the other.
+     */
+    public PersistentArray<E> snapshot(){
+        // after this, no node is owned by either list: the next write on each side copies its path
+        this.edit = new Object();
+        return new PersistentArray<>(size, shift, root, tail);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        if(isOutOfBounds(index)){
+            throw new IndexOutOfBoundsException(String.format("(get) out of bounds at index %d", index));
+        }
+        return (E) leafFor(index).array[index & MASK];
+    }
+
+    @Override
+    public E first() {
+        if(isEmpty()){
+            throw new NoSuchElementException("list empty");
+        }
+        return get(0);
+    }
+
+    @Override
+    public E last() {
+        if(isEmpty()){
+            throw new NoSuchElementException("list empty");
+        }
+        return get(size - 1);
+    }
+
+    @Override
+    public void addFirst(E newElem) {
+        insert(0, newElem);
+    }
+
+    @Override
+    public void addLast(E newElem) {
+        var tailSize = size - tailOffset();
+        if(tailSize < WIDTH){
+            tail = editable(tail);
+            tail.array[tailSize] = newElem;
+            size++;
+            return;
+        }
+
+        // tail is full: push it into the trie, growing a level if the trie is full too
+        var full = tail;
+        if((size >>> BITS) > (1 << shift)){
+            var newRoot = newNode();
+            newRoot.array[0] = root;
+            newRoot.array[1] = newPath(shift, full);
+            root = newRoot;
+            shift += BITS;
+        } else {
+            root = pushTail(shift, root, full);
+        }
+        tail = newNode();
+        tail.array[0] = newElem;
+        size++;
+    }
+
+    @Override
+    public void add(E newElem) {
+        addLast(newElem);
+    }
+
+    @Override
+    public void addAll(DynamicList<E> otherDynList) {
+        for (E elem : otherDynList) {
+            this.addLast(elem);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E set(int index, E newElem) {
+        if(isOutOfBounds(index)){
+            throw new IndexOutOfBoundsException(String.format("(set) out of bounds at %d", index));
+        }
+
+        Node leaf;
+        if(index >= tailOffset()){
+            leaf = tail = editable(tail);
+        } else {
+            leaf = root = editable(root);
+            for (int level = shift; level > 0; level -= BITS) {
+                var sub = (index >>> level) & MASK;
+                var child = editable((Node) leaf.array[sub]);
+                leaf.array[sub] = child;
+                leaf = child;
+            }
+        }
+
+        var old = (E) leaf.array[index & MASK];
+        leaf.array[index & MASK] = newElem;
+        return old;
+    }
+
+    @Override
+    public void insert(int insertIndex, E newElem) {
+        if(insertIndex > size || insertIndex < 0){
+            throw new IndexOutOfBoundsException(String.format("(insert) out of bounds at index %d", insertIndex));
+        }
+        if(insertIndex == size){
+            addLast(newElem);
+            return;
+        }
+
+        addLast(last());
+        for (int i = size - 2; i > insertIndex; i--) {
+            set(i, get(i - 1));
+        }
+        set(insertIndex, newElem);
+    }
+
+    @Override
+    public E removeFirst() {
+        if(isEmpty()){
+            throw new NoSuchElementException("list empty");
+        }
+        return removeIndex(0);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E removeLast() {
+        if(isEmpty()){
+            throw new NoSuchElementException("list empty");
+        }
+
+        var tailSize = size - tailOffset();
+        var old = (E) tail.array[tailSize - 1];
+        if(size == 1){
+            removeAll();
+            return old;
+        }
+        if(tailSize > 1){
+            tail = editable(tail);
+            tail.array[tailSize - 1] = null;
+            size--;
+            return old;
+        }
+
+        // the tail empties: the last leaf of the trie becomes the tail
+        var newTail = leafFor(size - 2);
+        var newRoot = popTail(shift, root);
+        if(newRoot == null){
+            newRoot = EMPTY_NODE;
+        }
+        if(shift > BITS && newRoot.array[1] == null){
+            newRoot = (Node) newRoot.array[0];
+            shift -= BITS;
+        }
+        root = newRoot;
+        tail = newTail;
+        size--;
+        return old;
+    }
+
+    @Override
+    public void removeAll() {
+        this.edit = new Object();
+        this.size = 0;
+        this.shift = BITS;
+        this.root = EMPTY_NODE;
+        this.tail = newNode();
+    }
+
+    @Override
+    public E removeIndex(int index) {
+        if(isOutOfBounds(index)){
+            throw new IndexOutOfBoundsException(String.format("out of bounds at index: %d", index));
+        }
+
+        var old = get(index);
+        for (int i = index; i < size - 1; i++) {
+            set(i, get(i + 1));
+        }
+        removeLast();
+        return old;
+    }
+
+    @Override
+    public E remove(Function<E, Boolean> searchFct) {
+        var index = find(searchFct);
+        return index < 0 ? null : removeIndex(index);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public DynamicList<E> subList(int start, int stop) {
+        if(stop > size){
+            throw new IndexOutOfBoundsException(String.format("index out of bounds at index: %d", stop));
+        }
+        if(start < 0){
+            throw new IndexOutOfBoundsException(String.format("index out of bounds at index: %d", start));
+        }
+        if(start > stop){
+            throw new IndexOutOfBoundsException(String.format("index out of bounds at index: %d", start));
+        }
+        PersistentArray<E> d = newEmpty();
+        for (int i = start; i < stop; i++) {
+            d.addLast((E) leafFor(i).array[i & MASK]);
+        }
+        return d;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public int find(Function<E, Boolean> searchFct) {
+        for (int base = 0; base < size; base += WIDTH) {
+            var leaf = leafFor(base).array;
+            var end = Math.min(WIDTH, size - base);
+            for (int j = 0; j < end; j++) {
+                if(searchFct.apply((E) leaf[j])){
+                    return base + j;
+                }
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<E> toNativeList() {
+        List<E> javaList = new ArrayList<>(size);
+        for (int base = 0; base < size; base += WIDTH) {
+            var leaf = leafFor(base).array;
+            var end = Math.min(WIDTH, size - base);
+            for (int j = 0; j < end; j++) {
+                javaList.add((E) leaf[j]);
+            }
+        }
+        return javaList;
+    }
+
+    @Override
+    public String toString() {
+        var l = toNativeList().toString() + "\n";
+        return l + "Size: " + size;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<>() {
+            int index = 0;
+            Object[] leaf;
+
+            @Override
+            public boolean hasNext() {
+                return index < size;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public E next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                if((index & MASK) == 0 || leaf == null){
+                    leaf = leafFor(index).array;
+                }
+                return (E) leaf[index++ & MASK];
+            }
+        };
+    }
+
+    /**
+     * Return spliterator splitting by index range, without copying (SIZED, SUBSIZED and ORDERED)
+     */
+    @Override
+    public Spliterator<E> spliterator() {
+        return new RangeSpliterator(0, size);
+    }
+
+    //utils
+
+    private int tailOffset(){
+        return size < WIDTH ? 0 : ((size - 1) >>> BITS) << BITS;
+    }
+
+    private Node leafFor(int index){
+        if(index >= tailOffset()){
+            return tail;
+        }
+        var node = root;
+        for (int level = shift; level > 0; level -= BITS) {
+            node = (Node) node.array[(index >>> level) & MASK];
+        }
+        return node;
+    }
+
+    private Node newNode(){
+        return new Node(edit, new Object[WIDTH]);
+    }
+
+    // "node" itself if this list owns it, else a copy this list owns
+    private Node editable(Node node){
+        if(node.edit == edit){
+            return node;
+        }
+        return new Node(edit, node.array.clone());
+    }
+
+    // chain of single-child nodes from "level" down to "leaf"
+    private Node newPath(int level, Node leaf){
+        if(level == 0){
+            return leaf;
+        }
+        var node = newNode();
+        node.array[0] = newPath(level - BITS, leaf);
+        return node;
+    }
+
+    // link the full tail (holding indices up to size - 1) under "parent"
+    private Node pushTail(int level, Node parent, Node full){
+        var sub = ((size - 1) >>> level) & MASK;
+        var node = editable(parent);
+        Node child;
+        if(level == BITS){
+            child = full;
+        } else {
+            var existing = (Node) node.array[sub];
+            child = existing != null ? pushTail(level - BITS, existing, full) : newPath(level - BITS, full);
+        }
+        node.array[sub] = child;
+        return node;
+    }
+
+    // unlink the last leaf (holding index size - 2); null when "node" would be left empty
+    private Node popTail(int level, Node node){
+        var sub = ((size - 2) >>> level) & MASK;
+        if(level > BITS){
+            var child = popTail(level - BITS, (Node) node.array[sub]);
+            if(child == null && sub == 0){
+                return null;
+            }
+            var copy = editable(node);
+            copy.array[sub] = child;
+            return copy;
+        }
+        if(sub == 0){
+            return null;
+        }
+        var copy = editable(node);
+        copy.array[sub] = null;
+        return copy;
+    }
+
+    private boolean isOutOfBounds(int index){
+        return index >= size || index <= -1;
+    }
+
+    // walks the trie leaf by leaf, so forEachRemaining descends once per WIDTH elements
+    private final class RangeSpliterator implements Spliterator<E> {
+
+        // covers list indices [index, fence)
+        private int index;
+        private final int fence;
+
+        RangeSpliterator(int index, int fence){
+            this.index = index;
+            this.fence = fence;
+        }
+
+        @Override
+        public Spliterator<E> trySplit() {
+            var lo = index;
+            var mid = (lo + fence) >>> 1;
+            if(mid <= lo)
+                return null;
+
+            index = mid;
+            return new RangeSpliterator(lo, mid);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean tryAdvance(Consumer<? super E> action) {
+            if(index >= fence)
+                return false;
+            var elem = (E) leafFor(index).array[index & MASK];
+            index++;
+            action.accept(elem);
+            return true;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void forEachRemaining(Consumer<? super E> action) {
+            while(index < fence){
+                var leaf = leafFor(index).array;
+                var end = Math.min(fence, (index | MASK) + 1);
+                for (; index < end; index++) {
+                    action.accept((E) leaf[index & MASK]);
+                }
+            }
+        }
+
+        @Override
+        public long estimateSize() {
+            return fence - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED;
+        }
+    }
+
+    private static final class Node {
+        // the edit token of the list allowed to change this node in place
+        private final Object edit;
+        private final Object[] array;
+
+        Node(Object edit, Object[] array){
+            this.edit = edit;
+            this.array = array;
+        }
+    }
+
+}
@@ -0,0 +1,131 @@
+package dynamicList;
+
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+
+/**
+ * Boxed DynamicList view over a primitive array list (IntDynamicArray, ...).
+ * Subclasses supply the indexed primitives; everything else is derived here.
+ * The view is live: changes through it write to the primitive array and
+ * vice versa. Each element is boxed when it is read through the view.
+ */
+abstract class PrimitiveListView<E> implements DynamicList<E> {
+
+	@Override
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	@Override
+	public E first() {
+		if (isEmpty())
+			throw new RuntimeException("(first) Attempted to access element in empty list");
+		return get(0);
+	}
+
+	@Override
+	public E last() {
+		if (isEmpty())
+			throw new RuntimeException("(last) Attempted to access element in empty list");
+		return get(size() - 1);
+	}
+
+	@Override
+	public void addFirst(E newElem) {
+		insert(0, newElem);
+	}
+
+	@Override
+	public void addLast(E newElem) {
+		insert(size(), newElem);
+	}
+
+	@Override
+	public void add(E newElem) {
+		addLast(newElem);
+	}
+
+	@Override
+	public void addAll(DynamicList<E> otherDynList) {
+		for (E elem : otherDynList)
+			addLast(elem);
+	}
+
+	@Override
+	public E removeFirst() {
+		if (isEmpty())
+			throw new RuntimeException("(removeFirst) Attempted to access element in empty list");
+		return removeIndex(0);
+	}
+
+	@Override
+	public E removeLast() {
+		if (isEmpty())
+			throw new RuntimeException("(removeLast) Attempted to access element in empty list");
+		return removeIndex(size() - 1);
+	}
+
+	@Override
+	public E remove(Function<E, Boolean> searchFct) {
+		var index = find(searchFct);
+		return index < 0 ? null : removeIndex(index);
+	}
+
+	@Override
+	public DynamicList<E> subList(int start, int stop) {
+		if (start < 0)
+			throw new RuntimeException("starting index out of bounds: " + start);
+		if (stop > size())
+			throw new RuntimeException("ending index out of bounds: " + stop);
+
+		DynamicList<E> newList = DynamicArray.withCapacity(Math.max(stop - start, 0));
+		for (int i = start; i < stop; i++)
+			newList.add(get(i));
+		return newList;
+	}
+
+	@Override
+	public int find(Function<E, Boolean> searchFct) {
+		for (int i = 0; i < size(); i++) {
+			if (searchFct.apply(get(i)))
+				return i;
+		}
+		return -1;
+	}
+
+	@Override
+	public List<E> toNativeList() {
+		List<E> javaList = new ArrayList<>(size());
+		for (int i = 0; i < size(); i++)
+			javaList.add(get(i));
+		return javaList;
+	}
+
+	@Override
+	public String toString() {
+		return toNativeList().toString();
+	}
+
+	@Override
+	public Iterator<E> iterator() {
+		return new Iterator<>() {
+			int index = 0;
+
+			@Override
+			public boolean hasNext() {
+				return index < size();
+			}
+
+			@Override
+			public E next() {
+				if (!hasNext())
+					throw new NoSuchElementException();
+				return get(index++);
+			}
+		};
+	}
+}
@@ -0,0 +1,383 @@
+package dynamicList;
+
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Circular-buffer implementation of DynamicList (ArrayDeque style).
+ *
+ * Elements live in a power-of-two array starting at "head" and wrapping
+ * around its end, so list index i is stored at slot (head + i) & mask.
+ * addFirst/removeFirst/addLast/removeLast only move head or size (amortized
+ * O(1)), and get/set stay O(1).
+ * insert and removeIndex shift whichever side of the index is shorter.
+ * The array doubles when full; growing unwraps the elements into the new
+ * array, and nothing is copied just because the elements wrap around.
+ */
+public class RingBufferDeque<E> implements DynamicList<E> {
+
+    private static final int DEFAULT_CAP = 16;
+    private static final int MAX_CAP = 1 << 30;
+
+    private E[] elems;
+    private int mask;
+    private int head;
+    private int size;
+
+    private RingBufferDeque(int initCapacity){
+        if(initCapacity < 0){
+            throw new IllegalArgumentException("capacity must be greater than zero");
+        }
+        initialize(initCapacity);
+    }
+
+    public static <T> RingBufferDeque<T> newEmpty(){
+        return new RingBufferDeque<>(DEFAULT_CAP);
+    }
+
+    public static <T> RingBufferDeque<T> withCapacity(int initCapacity){
+        return new RingBufferDeque<>(initCapacity);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void initialize(int capacity){
+        var length = 2;
+        while(length < capacity && length < MAX_CAP){
+            length <<= 1;
+        }
+        this.elems = (E[]) new Object[length];
+        this.mask = length - 1;
+        this.head = 0;
+        this.size = 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public E get(int index) {
+        if(isOutOfBounds(index)){
+            throw new IndexOutOfBoundsException(String.format("(get) out of bounds at index %d", index));
+        }
+        return elems[slot(index)];
+    }
+
+    @Override
+    public E first() {
+        if(isEmpty()){
+            throw new NoSuchElementException("list empty");
+        }
+        return elems[head];
+    }
+
+    @Override
+    public E last() {
+        if(isEmpty()){
+            throw new NoSuchElementException("list empty");
+        }
+        return elems[slot(size - 1)];
+    }
+
+    @Override
+    public void addFirst(E newElem) {
+        ensureRoom();
+        head = (head - 1) & mask;
+        elems[head] = newElem;
+        size++;
+    }
+
+    @Override
+    public void addLast(E newElem) {
+        ensureRoom();
+        elems[slot(size)] = newElem;
+        size++;
+    }
+
+    @Override
+    public void add(E newElem) {
+        addLast(newElem);
+    }
+
+    @Override
+    public void addAll(DynamicList<E> otherDynList) {
+        for (E elem : otherDynList) {
+            this.addLast(elem);
+        }
+    }
+
+    @Override
+    public E set(int index, E newElem) {
+        if(isOutOfBounds(index)){
+            throw new IndexOutOfBoundsException(String.format("(set) out of bounds at %d", index));
+        }
+        var i = slot(index);
+        var old = elems[i];
+        elems[i] = newElem;
+        return old;
+    }
+
+    @Override
+    public void insert(int insertIndex, E newElem) {
+        if(insertIndex > size || insertIndex < 0){
+            throw new IndexOutOfBoundsException(String.format("(insert) out of bounds at index %d", insertIndex));
+        }
+        ensureRoom();
+
+        if(insertIndex < size - insertIndex){
+            // shift the front part one slot to the left
+            head = (head - 1) & mask;
+            moveRange(1, 0, insertIndex);
+        } else {
+            // shift the back part one slot to the right
+            moveRange(insertIndex, insertIndex + 1, size - insertIndex);
+        }
+        elems[slot(insertIndex)] = newElem;
+        size++;
+    }
+
+    @Override
+    public E removeFirst() {
+        if(isEmpty()){
+            throw new NoSuchElementException("list empty");
+        }
+        var old = elems[head];
+        elems[head] = null;
+        head = (head + 1) & mask;
+        size--;
+        return old;
+    }
+
+    @Override
+    public E removeLast() {
+        if(isEmpty()){
+            throw new NoSuchElementException("list empty");
+        }
+        var i = slot(size - 1);
+        var old = elems[i];
+        elems[i] = null;
+        size--;
+        return old;
+    }
+
+    @Override
+    public void removeAll() {
+        initialize(DEFAULT_CAP);
+    }
+
+    @Override
+    public E removeIndex(int index) {
+        if(isOutOfBounds(index)){
+            throw new IndexOutOfBoundsException(String.format("out of bounds at index: %d", index));
+        }
+        var old = elems[slot(index)];
+
+        if(index < size - 1 - index){
+            // close the gap by moving the front part one slot to the right
+            moveRange(0, 1, index);
+            elems[head] = null;
+            head = (head + 1) & mask;
+        } else {
+            // close the gap by moving the back part one slot to the left
+            moveRange(index + 1, index, size - 1 - index);
+            elems[slot(size - 1)] = null;
+        }
+        size--;
+        return old;
+    }
+
+    @Override
+    public E remove(Function<E, Boolean> searchFct) {
+        var index = find(searchFct);
+        return index < 0 ? null : removeIndex(index);
+    }
+
+    @Override
+    public DynamicList<E> subList(int start, int stop) {
+        if(stop > size){
+            throw new IndexOutOfBoundsException(String.format("index out of bounds at index: %d", stop));
+        }
+        if(start < 0){
+            throw new IndexOutOfBoundsException(String.format("index out of bounds at index: %d", start));
+        }
+        if(start > stop){
+            throw new IndexOutOfBoundsException(String.format("index out of bounds at index: %d", start));
+        }
+        RingBufferDeque<E> d = new RingBufferDeque<>(stop - start);
+        // the range wraps around the array end at most once
+        var count = stop - start;
+        var from = slot(start);
+        var front = Math.min(count, elems.length - from);
+        System.arraycopy(elems, from, d.elems, 0, front);
+        System.arraycopy(elems, 0, d.elems, front, count - front);
+        d.size = count;
+        return d;
+    }
+
+    @Override
+    public int find(Function<E, Boolean> searchFct) {
+        for (int i = 0; i < size; i++) {
+            if(searchFct.apply(elems[slot(i)])){
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public List<E> toNativeList() {
+        List<E> javaList = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            javaList.add(elems[slot(i)]);
+        }
+        return javaList;
+    }
+
+    @Override
+    public String toString() {
+        var l = toNativeList().toString() + "\n";
+        return l + "Size: " + size;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<>() {
+            int index = 0;
+
+            @Override
+            public boolean hasNext() {
+                return index < size;
+            }
+
+            @Override
+            public E next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return elems[slot(index++)];
+            }
+        };
+    }
+
+    /**
+     * Return spliterator splitting by index range, without copying (SIZED, SUBSIZED and ORDERED)
+     */
+    @Override
+    public Spliterator<E> spliterator() {
+        return new RangeSpliterator(0, size);
+    }
+
+    //utils
+
+    private int slot(int index){
+        return (head + index) & mask;
+    }
+
+    /**
+     * Move the elements at list indices [from, from + count) to [to, to + count),
+     * one System.arraycopy per run that wraps neither in the source nor in the destination
+     */
+    private void moveRange(int from, int to, int count){
+        if(to < from){
+            // front to back, so no run overwrites slots a later run still reads
+            while(count > 0){
+                var src = slot(from);
+                var dst = slot(to);
+                var run = Math.min(count, Math.min(elems.length - src, elems.length - dst));
+                System.arraycopy(elems, src, elems, dst, run);
+                from += run;
+                to += run;
+                count -= run;
+            }
+        } else {
+            // back to front, for the same reason
+            while(count > 0){
+                var srcEnd = slot(from + count - 1) + 1;
+                var dstEnd = slot(to + count - 1) + 1;
+                var run = Math.min(count, Math.min(srcEnd, dstEnd));
+                System.arraycopy(elems, srcEnd - run, elems, dstEnd - run, run);
+                count -= run;
+            }
+        }
+    }
+
+    private void ensureRoom(){
+        if(size < elems.length)
+            return;
+        if(elems.length >= MAX_CAP)
+            throw new IllegalStateException("deque cannot grow beyond " + MAX_CAP + " elements");
+
+        // unwrap: [head..end) then [0..head) become [0..size)
+        @SuppressWarnings("unchecked")
+        E[] grown = (E[]) new Object[elems.length << 1];
+        var front = elems.length - head;
+        System.arraycopy(elems, head, grown, 0, front);
+        System.arraycopy(elems, 0, grown, front, head);
+
+        elems = grown;
+        mask = grown.length - 1;
+        head = 0;
+    }
+
+    private boolean isOutOfBounds(int index){
+        return index >= size || index <= -1;
+    }
+
+    // the elements may wrap around the array end, so an array spliterator cannot cover them
+    private final class RangeSpliterator implements Spliterator<E> {
+
+        // covers list indices [index, fence)
+        private int index;
+        private final int fence;
+
+        RangeSpliterator(int index, int fence){
+            this.index = index;
+            this.fence = fence;
+        }
+
+        @Override
+        public Spliterator<E> trySplit() {
+            var lo = index;
+            var mid = (lo + fence) >>> 1;
+            if(mid <= lo)
+                return null;
+
+            index = mid;
+            return new RangeSpliterator(lo, mid);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super E> action) {
+            if(index >= fence)
+                return false;
+            action.accept(elems[slot(index++)]);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super E> action) {
+            for (; index < fence; index++) {
+                action.accept(elems[slot(index)]);
+            }
+        }
+
+        @Override
+        public long estimateSize() {
+            return fence - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED;
+        }
+    }
+
+}
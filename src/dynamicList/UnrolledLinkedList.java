@@ -0,0 +1,437 @@
+package dynamicList;
+
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Unrolled linked list: a doubly linked list of nodes that each hold a small
+ * array of up to "nodeCapacity" elements.
+ *
+ * Indexed access skips whole nodes, so get/set/insert/removeIndex cost
+ * O(size / nodeCapacity + nodeCapacity) instead of O(size).
+ * The list also remembers the last node it located (and that node's first
+ * index), so ascending or descending get(i) loops only move one node at a time.
+ * Inserting in the middle shifts elements inside one node only; a full node is
+ * split in two, and an under-filled node is merged with a neighbour.
+ */
+public class UnrolledLinkedList<E> implements DynamicList<E> {
+
+    private static final int DEFAULT_NODE_CAPACITY = 32;
+    private static final int MIN_NODE_CAPACITY = 16;
+    private static final int MAX_NODE_CAPACITY = 64;
+
+    private final int nodeCapacity;
+
+    private Node<E> head;
+    private Node<E> tail;
+    private int size;
+
+    // last located node and the list index of its first element
+    private Node<E> cursor;
+    private int cursorStart;
+
+    private UnrolledLinkedList(int nodeCapacity){
+        if(nodeCapacity < MIN_NODE_CAPACITY || nodeCapacity > MAX_NODE_CAPACITY){
+            throw new IllegalArgumentException(String.format("node capacity must be between %d and %d", MIN_NODE_CAPACITY, MAX_NODE_CAPACITY));
+        }
+        this.nodeCapacity = nodeCapacity;
+        initialize();
+    }
+
+    public static <T> UnrolledLinkedList<T> newEmpty(){
+        return new UnrolledLinkedList<>(DEFAULT_NODE_CAPACITY);
+    }
+
+    public static <T> UnrolledLinkedList<T> fromNodeCapacity(int nodeCapacity){
+        return new UnrolledLinkedList<>(nodeCapacity);
+    }
+
+    private void initialize(){
+        this.size = 0;
+        this.head = new Node<>(nodeCapacity);
+        this.tail = head;
+        this.cursor = head;
+        this.cursorStart = 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public E get(int index) {
+        if(isOutOfBounds(index)){
+            throw new IndexOutOfBoundsException(String.format("(get) out of bounds at index %d", index));
+        }
+        var node = locate(index);
+        return node.elems[index - cursorStart];
+    }
+
+    @Override
+    public E first() {
+        if(isEmpty()){
+            throw new NoSuchElementException("list empty");
+        }
+        return head.elems[0];
+    }
+
+    @Override
+    public E last() {
+        if(isEmpty()){
+            throw new NoSuchElementException("list empty");
+        }
+        return tail.elems[tail.count - 1];
+    }
+
+    @Override
+    public void addFirst(E newElem) {
+        insert(0, newElem);
+    }
+
+    @Override
+    public void addLast(E newElem) {
+        var last = tail;
+        if(last.count == nodeCapacity){
+            // appending fills nodes completely instead of splitting them
+            last = appendNode();
+        }
+        last.elems[last.count++] = newElem;
+        size++;
+    }
+
+    @Override
+    public void add(E newElem) {
+        addLast(newElem);
+    }
+
+    @Override
+    public void addAll(DynamicList<E> otherDynList) {
+        for (E elem : otherDynList) {
+            this.add(elem);
+        }
+    }
+
+    @Override
+    public E set(int index, E newElem) {
+        if(isOutOfBounds(index)){
+            throw new IndexOutOfBoundsException(String.format("(set) out of bounds at %d", index));
+        }
+        var node = locate(index);
+        var offset = index - cursorStart;
+        var old = node.elems[offset];
+        node.elems[offset] = newElem;
+        return old;
+    }
+
+    @Override
+    public void insert(int insertIndex, E newElem) {
+        if(insertIndex > size || insertIndex < 0){
+            throw new IndexOutOfBoundsException(String.format("(insert) out of bounds at index %d", insertIndex));
+        }
+        if(insertIndex == size){
+            addLast(newElem);
+            return;
+        }
+
+        var node = locate(insertIndex);
+        var start = cursorStart;
+        if(node.count == nodeCapacity){
+            var upper = splitNode(node, start);
+            if(insertIndex - start >= node.count){
+                start += node.count;
+                node = upper;
+                cursor = upper;
+                cursorStart = start;
+            }
+        }
+
+        var offset = insertIndex - start;
+        System.arraycopy(node.elems, offset, node.elems, offset + 1, node.count - offset);
+        node.elems[offset] = newElem;
+        node.count++;
+        size++;
+    }
+
+    @Override
+    public E removeFirst() {
+        if(isEmpty()){
+            throw new NoSuchElementException("list empty");
+        }
+        return removeIndex(0);
+    }
+
+    @Override
+    public E removeLast() {
+        if(isEmpty()){
+            throw new NoSuchElementException("list empty");
+        }
+        return removeIndex(size - 1);
+    }
+
+    @Override
+    public void removeAll() {
+        initialize();
+    }
+
+    @Override
+    public E removeIndex(int index) {
+        if(isOutOfBounds(index)){
+            throw new IndexOutOfBoundsException(String.format("out of bounds at index: %d", index));
+        }
+        var node = locate(index);
+        return removeAt(node, cursorStart, index - cursorStart);
+    }
+
+    @Override
+    public E remove(Function<E, Boolean> searchFct) {
+        var start = 0;
+        for (var node = head; node != null; node = node.next) {
+            for (int i = 0; i < node.count; i++) {
+                if(searchFct.apply(node.elems[i])){
+                    return removeAt(node, start, i);
+                }
+            }
+            start += node.count;
+        }
+        return null;
+    }
+
+    @Override
+    public DynamicList<E> subList(int start, int stop) {
+        if(stop > size){
+            throw new IndexOutOfBoundsException(String.format("index out of bounds at index: %d", stop));
+        }
+        if(start < 0){
+            throw new IndexOutOfBoundsException(String.format("index out of bounds at index: %d", start));
+        }
+        if(start > stop){
+            throw new IndexOutOfBoundsException(String.format("index out of bounds at index: %d", start));
+        }
+        UnrolledLinkedList<E> d = new UnrolledLinkedList<>(nodeCapacity);
+        if(start == stop){
+            return d;
+        }
+
+        // copy run by run: each run stays inside one source node and one (filled) target node
+        var node = locate(start);
+        var offset = start - cursorStart;
+        var remaining = stop - start;
+        while(remaining > 0){
+            if(offset == node.count){
+                node = node.next;
+                offset = 0;
+            }
+            var target = d.tail.count == nodeCapacity ? d.appendNode() : d.tail;
+            var run = Math.min(remaining, Math.min(node.count - offset, nodeCapacity - target.count));
+            System.arraycopy(node.elems, offset, target.elems, target.count, run);
+            target.count += run;
+            d.size += run;
+            offset += run;
+            remaining -= run;
+        }
+        return d;
+    }
+
+    @Override
+    public int find(Function<E, Boolean> searchFct) {
+        var start = 0;
+        for (var node = head; node != null; node = node.next) {
+            for (int i = 0; i < node.count; i++) {
+                if(searchFct.apply(node.elems[i])){
+                    return start + i;
+                }
+            }
+            start += node.count;
+        }
+        return -1;
+    }
+
+    @Override
+    public List<E> toNativeList() {
+        List<E> javaList = new ArrayList<>(size);
+        for (var node = head; node != null; node = node.next) {
+            for (int i = 0; i < node.count; i++) {
+                javaList.add(node.elems[i]);
+            }
+        }
+        return javaList;
+    }
+
+    @Override
+    public String toString() {
+        var l = toNativeList().toString() + "\n";
+        return l + "Size: " + size;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<>() {
+            Node<E> node = head;
+            int offset = 0;
+            int remaining = size;
+
+            @Override
+            public boolean hasNext() {
+                return remaining > 0;
+            }
+
+            @Override
+            public E next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                while(offset == node.count){
+                    node = node.next;
+                    offset = 0;
+                }
+                remaining--;
+                return node.elems[offset++];
+            }
+        };
+    }
+
+    //utils
+
+    /**
+     * Return the node holding index and leave cursor/cursorStart on it.
+     * Walks from whichever of head, tail or the previous cursor is closest.
+     */
+    private Node<E> locate(int index){
+        var node = cursor;
+        var start = cursorStart;
+
+        var tailStart = size - tail.count;
+        if(index < Math.abs(index - start)){
+            node = head;
+            start = 0;
+        } else if(index >= tailStart && index - tailStart < Math.abs(index - start)){
+            node = tail;
+            start = tailStart;
+        }
+
+        while(index < start){
+            node = node.prev;
+            start -= node.count;
+        }
+        while(index >= start + node.count){
+            start += node.count;
+            node = node.next;
+        }
+
+        cursor = node;
+        cursorStart = start;
+        return node;
+    }
+
+    // link a new empty node after the tail and return it
+    private Node<E> appendNode(){
+        var last = new Node<E>(nodeCapacity);
+        last.prev = tail;
+        tail.next = last;
+        tail = last;
+        return last;
+    }
+
+    /**
+     * Move the upper half of "node" (whose first index is "start") into a new node
+     * linked right after it; return the new node
+     */
+    private Node<E> splitNode(Node<E> node, int start){
+        var upper = new Node<E>(nodeCapacity);
+        var keep = node.count / 2;
+        var moved = node.count - keep;
+
+        System.arraycopy(node.elems, keep, upper.elems, 0, moved);
+        Arrays.fill(node.elems, keep, node.count, null);
+        node.count = keep;
+        upper.count = moved;
+
+        upper.prev = node;
+        upper.next = node.next;
+        if(node.next == null){
+            tail = upper;
+        } else {
+            node.next.prev = upper;
+        }
+        node.next = upper;
+
+        cursor = node;
+        cursorStart = start;
+        return upper;
+    }
+
+    private E removeAt(Node<E> node, int start, int offset){
+        var old = node.elems[offset];
+        System.arraycopy(node.elems, offset + 1, node.elems, offset, node.count - offset - 1);
+        node.elems[--node.count] = null;
+        size--;
+
+        cursor = node;
+        cursorStart = start;
+        if(node.count < nodeCapacity / 2){
+            rebalance(node, start);
+        }
+        return old;
+    }
+
+    /**
+     * Merge an under-filled node with a neighbour when both fit in one node
+     */
+    private void rebalance(Node<E> node, int start){
+        var next = node.next;
+        if(next != null && node.count + next.count <= nodeCapacity){
+            System.arraycopy(next.elems, 0, node.elems, node.count, next.count);
+            node.count += next.count;
+            unlink(next);
+            return;
+        }
+
+        var prev = node.prev;
+        if(prev != null && prev.count + node.count <= nodeCapacity){
+            System.arraycopy(node.elems, 0, prev.elems, prev.count, node.count);
+            prev.count += node.count;
+            unlink(node);
+            cursor = prev;
+            cursorStart = start - (prev.count - node.count);
+        }
+    }
+
+    // never called on the only node: an empty list keeps one empty node
+    private void unlink(Node<E> node){
+        var prev = node.prev;
+        var next = node.next;
+        if(prev == null){
+            head = next;
+        } else {
+            prev.next = next;
+        }
+        if(next == null){
+            tail = prev;
+        } else {
+            next.prev = prev;
+        }
+    }
+
+    private boolean isOutOfBounds(int index){
+        return index >= size || index <= -1;
+    }
+
+    private static class Node<E>{
+        private final E[] elems;
+        private int count;
+        private Node<E> prev, next;
+
+        @SuppressWarnings("unchecked")
+        Node(int capacity){
+            this.elems = (E[]) new Object[capacity];
+        }
+    }
+
+}
@@ -0,0 +1,633 @@
+package hash;
+
+import dynamicList.DynamicArray;
+import dynamicList.DynamicList;
+import hashpub.DictionaryIdea;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Size-bounded cache implementing DictionaryIdea, built on HashTable.
+ *
+ * The HashTable maps each key to a cache node; nodes are also threaded on
+ * intrusive doubly linked lists (like dynamicList.LinkedList's Node) that
+ * the eviction policy uses to pick a victim in O(1).
+ * Entries can optionally expire after a time-to-live.
+ * get/getIfAbsentPut count hits and misses; evictions are counted as well.
+ * Not thread-safe.
+ */
+public class BoundedCache<k,v> implements DictionaryIdea<k,v> {
+
+    //instance variables
+    private static final long NO_TTL = 0L;
+
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final HashTable<k, Node<k,v>> index;
+    private final Policy<k,v> policy;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+
+
+    //constructors
+
+    private BoundedCache(int maxEntries, EvictionPolicy evictionPolicy, long ttlNanos){
+        if(maxEntries <= 0)
+            throw new IllegalArgumentException("maxEntries must be greater than zero");
+        if(ttlNanos < 0)
+            throw new IllegalArgumentException("ttl must not be negative");
+        if(evictionPolicy == null)
+            throw new NullPointerException("evictionPolicy cannot be equal to null");
+
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttlNanos;
+        this.index = HashTable.newEmpty();
+        this.index.ensureCapacity(maxEntries + 1);
+        this.policy = newPolicy(evictionPolicy, maxEntries);
+    }
+
+    public static <k,v> BoundedCache<k,v> fromMaxEntriesPolicy(int maxEntries, EvictionPolicy evictionPolicy){
+        return new BoundedCache<>(maxEntries, evictionPolicy, NO_TTL);
+    }
+
+    /**
+     * Every entry expires "ttl" after it was last put (a get does not extend it)
+     */
+    public static <k,v> BoundedCache<k,v> fromMaxEntriesPolicyTtl(int maxEntries, EvictionPolicy evictionPolicy, long ttl, TimeUnit unit){
+        if(ttl <= 0)
+            throw new IllegalArgumentException("ttl must be greater than zero");
+        return new BoundedCache<>(maxEntries, evictionPolicy, unit.toNanos(ttl));
+    }
+
+    public boolean isEmpty(){
+        return size() == 0;
+    }
+
+    public int maxEntries(){
+        return maxEntries;
+    }
+
+    //--------------------- Statistics ---------------------
+
+    public long hitCount(){
+        return hits;
+    }
+
+    public long missCount(){
+        return misses;
+    }
+
+    public long evictionCount(){
+        return evictions;
+    }
+
+    public long expirationCount(){
+        return expirations;
+    }
+
+    /**
+     * Return hits / (hits + misses), or 0 if nothing was requested yet
+     */
+    public double hitRatio(){
+        var requests = hits + misses;
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+
+    public void resetStatistics(){
+        hits = 0;
+        misses = 0;
+        evictions = 0;
+        expirations = 0;
+    }
+
+    //--------------------- DictionaryIdea ---------------------
+
+    @Override
+    public v put(k key, v value) {
+        return put(key, value, ttlNanos);
+    }
+
+    /**
+     * Put with a per-entry time-to-live overriding the cache default
+     */
+    public v put(k key, v value, long ttl, TimeUnit unit) {
+        if(ttl <= 0)
+            throw new IllegalArgumentException("ttl must be greater than zero");
+        return put(key, value, unit.toNanos(ttl));
+    }
+
+    @Override
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * Does not count as an access (no hit/miss, no policy update)
+     */
+    @Override
+    public boolean containsKey(k key) {
+        var node = index.get(key);
+        return node != null && !expireIfStale(node);
+    }
+
+    @Override
+    public v get(k key) {
+        var node = index.get(key);
+
+        if(node == null || expireIfStale(node)){
+            misses++;
+            return null;
+        }
+
+        hits++;
+        policy.onAccess(node);
+        return node.value;
+    }
+
+    @Override
+    public v getIfAbsentPut(k key, Function<k, v> provider) {
+        var g = get(key);
+
+        if(g == null){
+            var value = provider.apply(key);
+            put(key, value);
+
+            return value;
+        } else return g;
+    }
+
+    @Override
+    public DynamicList<k> keys() {
+        DynamicList<k> d = DynamicArray.newEmpty();
+        var now = ttlNanos == NO_TTL ? 0L : System.nanoTime();
+
+        index.forEach((key, node) -> {
+            if(!node.isExpired(now))
+                d.add(key);
+        });
+
+        return d;
+    }
+
+    @Override
+    public v removeKey(k key) {
+        var node = index.get(key);
+
+        if(node == null || expireIfStale(node)){
+            throw new RuntimeException(String.format("key: %s does not exist", key));
+        }
+        removeNode(node);
+        return node.value;
+    }
+
+    @Override
+    public v removeKeyIfAbsent(k key, Supplier<v> supplier) {
+        var node = index.get(key);
+
+        if(node == null || expireIfStale(node)){
+            return supplier.get();
+        }
+        removeNode(node);
+        return node.value;
+    }
+
+    @Override
+    public int bucketCount() {
+        return index.bucketCount();
+    }
+
+    public String toString(){
+        return index.toString();
+    }
+
+    //utils
+
+    private v put(k key, v value, long ttl) {
+        if(value == null){
+            throw new NullPointerException("value cannot be equal to null");
+        }
+        if(key == null){
+            throw new NullPointerException("key cannot be equal to null");
+        }
+
+        var expireAt = ttl == NO_TTL ? NO_TTL : System.nanoTime() + ttl;
+        var node = index.get(key);
+
+        if(node != null){
+            var old = node.isExpired(System.nanoTime()) ? null : node.value;
+            node.value = value;
+            node.expireAt = expireAt;
+            policy.onAccess(node);
+            return old;
+        }
+
+        node = new Node<>(key, value, expireAt);
+        index.put(key, node);
+        policy.onInsert(node);
+
+        while(index.size() > maxEntries){
+            removeNode(policy.victim());
+            evictions++;
+        }
+        return null;
+    }
+
+    private boolean expireIfStale(Node<k,v> node){
+        if(node.expireAt == NO_TTL || !node.isExpired(System.nanoTime()))
+            return false;
+
+        removeNode(node);
+        expirations++;
+        return true;
+    }
+
+    private void removeNode(Node<k,v> node){
+        index.removeKey(node.key);
+        policy.onRemove(node);
+    }
+
+    private static <k,v> Policy<k,v> newPolicy(EvictionPolicy evictionPolicy, int maxEntries){
+        switch (evictionPolicy){
+            case LRU: return new LruPolicy<>();
+            case LFU: return new LfuPolicy<>();
+            case W_TINY_LFU: return new WindowTinyLfuPolicy<>(maxEntries);
+            default: throw new IllegalArgumentException("unknown policy: " + evictionPolicy);
+        }
+    }
+
+
+    //node
+    private static class Node<k,v> {
+
+        final k key;
+        v value;
+        long expireAt;
+
+        // intrusive links for whichever AccessOrder the node is on
+        Node<k,v> previous, next;
+        // policy bookkeeping: LFU frequency bucket / W-TinyLFU region
+        FrequencyBucket<k,v> bucket;
+        int region;
+
+        Node(k key, v value, long expireAt){
+            this.key = key;
+            this.value = value;
+            this.expireAt = expireAt;
+        }
+
+        boolean isExpired(long now){
+            return expireAt != NO_TTL && now - expireAt >= 0;
+        }
+
+        // sentinel constructor
+        Node(){
+            this(null, null, NO_TTL);
+            previous = this;
+            next = this;
+        }
+    }
+
+    /**
+     * Doubly linked list of nodes with a sentinel head: head.next is the
+     * least recently used node, head.previous the most recently used one
+     */
+    private static class AccessOrder<k,v> {
+
+        private final Node<k,v> head = new Node<>();
+        private int size;
+
+        boolean isEmpty(){
+            return size == 0;
+        }
+
+        int size(){
+            return size;
+        }
+
+        Node<k,v> first(){
+            return head.next;
+        }
+
+        void addLast(Node<k,v> node){
+            var last = head.previous;
+            node.previous = last;
+            node.next = head;
+            last.next = node;
+            head.previous = node;
+            size++;
+        }
+
+        void remove(Node<k,v> node){
+            node.previous.next = node.next;
+            node.next.previous = node.previous;
+            node.previous = null;
+            node.next = null;
+            size--;
+        }
+
+        void moveToLast(Node<k,v> node){
+            remove(node);
+            addLast(node);
+        }
+    }
+
+
+    //policies
+    private interface Policy<k,v> {
+
+        void onInsert(Node<k,v> node);
+
+        void onAccess(Node<k,v> node);
+
+        void onRemove(Node<k,v> node);
+
+        /**
+         * Return the node to evict (still linked; onRemove follows)
+         */
+        Node<k,v> victim();
+    }
+
+    private static class LruPolicy<k,v> implements Policy<k,v> {
+
+        private final AccessOrder<k,v> order = new AccessOrder<>();
+
+        @Override
+        public void onInsert(Node<k,v> node) {
+            order.addLast(node);
+        }
+
+        @Override
+        public void onAccess(Node<k,v> node) {
+            order.moveToLast(node);
+        }
+
+        @Override
+        public void onRemove(Node<k,v> node) {
+            order.remove(node);
+        }
+
+        @Override
+        public Node<k,v> victim() {
+            return order.first();
+        }
+    }
+
+    private static class FrequencyBucket<k,v> {
+
+        final long frequency;
+        final AccessOrder<k,v> nodes = new AccessOrder<>();
+        FrequencyBucket<k,v> lower, higher;
+
+        FrequencyBucket(long frequency){
+            this.frequency = frequency;
+        }
+    }
+
+    /**
+     * O(1) LFU: nodes sit in per-frequency buckets kept in ascending order;
+     * an access moves a node to the bucket for frequency + 1
+     */
+    private static class LfuPolicy<k,v> implements Policy<k,v> {
+
+        // sentinel: lowest.higher is the least frequent non-empty bucket
+        private final FrequencyBucket<k,v> lowest = new FrequencyBucket<>(0);
+        // node inserted last, until it is accessed or removed
+        private Node<k,v> newest;
+
+        LfuPolicy(){
+            lowest.lower = lowest;
+            lowest.higher = lowest;
+        }
+
+        @Override
+        public void onInsert(Node<k,v> node) {
+            var first = lowest.higher;
+            var target = first != lowest && first.frequency == 1 ? first : linkAfter(lowest, 1);
+            target.nodes.addLast(node);
+            node.bucket = target;
+            newest = node;
+        }
+
+        @Override
+        public void onAccess(Node<k,v> node) {
+            if(node == newest)
+                newest = null;
+            var current = node.bucket;
+            var nextBucket = current.higher;
+            var target = nextBucket != lowest && nextBucket.frequency == current.frequency + 1
+                    ? nextBucket
+                    : linkAfter(current, current.frequency + 1);
+
+            current.nodes.remove(node);
+            target.nodes.addLast(node);
+            node.bucket = target;
+            unlinkIfEmpty(current);
+        }
+
+        @Override
+        public void onRemove(Node<k,v> node) {
+            if(node == newest)
+                newest = null;
+            var current = node.bucket;
+            current.nodes.remove(node);
+            node.bucket = null;
+            unlinkIfEmpty(current);
+        }
+
+        @Override
+        public Node<k,v> victim() {
+            var bucket = lowest.higher;
+            var node = bucket.nodes.first();
+            // the entry just inserted would always lose (once every other entry has been hit) and never
+            // get cached; pick among the resident entries instead, as if evicting before the insert.
+            // It is the tail of the frequency-1 bucket, so when it comes first it is alone there.
+            if(node == newest && bucket.higher != lowest)
+                node = bucket.higher.nodes.first();
+            return node;
+        }
+
+        private FrequencyBucket<k,v> linkAfter(FrequencyBucket<k,v> after, long frequency){
+            var bucket = new FrequencyBucket<k,v>(frequency);
+            bucket.lower = after;
+            bucket.higher = after.higher;
+            after.higher.lower = bucket;
+            after.higher = bucket;
+            return bucket;
+        }
+
+        private void unlinkIfEmpty(FrequencyBucket<k,v> bucket){
+            if(bucket != lowest && bucket.nodes.isEmpty()){
+                bucket.lower.higher = bucket.higher;
+                bucket.higher.lower = bucket.lower;
+            }
+        }
+    }
+
+    /**
+     * W-TinyLFU: ~1% LRU window in front of a segmented LRU main region
+     * (20% probation / 80% protected), with a count-min sketch deciding
+     * whether a candidate evicted from the window may replace the main victim
+     */
+    private static class WindowTinyLfuPolicy<k,v> implements Policy<k,v> {
+
+        private static final int WINDOW = 0;
+        private static final int PROBATION = 1;
+        private static final int PROTECTED = 2;
+
+        private final AccessOrder<k,v> window = new AccessOrder<>();
+        private final AccessOrder<k,v> probation = new AccessOrder<>();
+        private final AccessOrder<k,v> protectedOrder = new AccessOrder<>();
+        private final int maxWindow;
+        private final int maxProtected;
+        private final FrequencySketch sketch;
+        // entry most recently pushed out of the window, waiting for admission
+        private Node<k,v> candidate;
+
+        WindowTinyLfuPolicy(int maxEntries){
+            this.maxWindow = Math.max(1, maxEntries / 100);
+            this.maxProtected = (int) ((maxEntries - maxWindow) * 0.8);
+            this.sketch = new FrequencySketch(maxEntries);
+        }
+
+        @Override
+        public void onInsert(Node<k,v> node) {
+            sketch.increment(node.key.hashCode());
+            node.region = WINDOW;
+            window.addLast(node);
+
+            if(window.size() > maxWindow){
+                candidate = window.first();
+                window.remove(candidate);
+                candidate.region = PROBATION;
+                probation.addLast(candidate);
+            }
+        }
+
+        @Override
+        public void onAccess(Node<k,v> node) {
+            sketch.increment(node.key.hashCode());
+
+            switch (node.region){
+                case WINDOW:
+                    window.moveToLast(node);
+                    break;
+                case PROBATION:
+                    probation.remove(node);
+                    node.region = PROTECTED;
+                    protectedOrder.addLast(node);
+                    if(protectedOrder.size() > maxProtected){
+                        var demoted = protectedOrder.first();
+                        protectedOrder.remove(demoted);
+                        demoted.region = PROBATION;
+                        probation.addLast(demoted);
+                    }
+                    break;
+                default:
+                    protectedOrder.moveToLast(node);
+            }
+        }
+
+        @Override
+        public void onRemove(Node<k,v> node) {
+            if(node == candidate)
+                candidate = null;
+            orderOf(node).remove(node);
+        }
+
+        @Override
+        public Node<k,v> victim() {
+            var mainVictim = mainVictim();
+            var challenger = candidate;
+            candidate = null;
+
+            if(challenger == null || challenger == mainVictim)
+                return mainVictim;
+
+            // admit the window's candidate only if it is requested more often than the main victim
+            return sketch.frequency(challenger.key.hashCode()) > sketch.frequency(mainVictim.key.hashCode())
+                    ? mainVictim
+                    : challenger;
+        }
+
+        private Node<k,v> mainVictim(){
+            if(!probation.isEmpty())
+                return probation.first();
+            if(!protectedOrder.isEmpty())
+                return protectedOrder.first();
+            return window.first();
+        }
+
+        private AccessOrder<k,v> orderOf(Node<k,v> node){
+            switch (node.region){
+                case WINDOW: return window;
+                case PROBATION: return probation;
+                default: return protectedOrder;
+            }
+        }
+    }
+
+    /**
+     * Count-min sketch (4 rows) of saturating counters; all counters are
+     * halved every 10 * maxEntries increments so old popularity fades
+     */
+    private static class FrequencySketch {
+
+        private static final int MAX_COUNT = 15;
+        private static final int[] SEEDS = {0x97cb3127, 0xb2b1f6a5, 0x63d9b0c7, 0x1b873593};
+
+        private final byte[][] rows;
+        private final int mask;
+        private final int sampleSize;
+        private int additions;
+
+        FrequencySketch(int maxEntries){
+            var width = 16;
+            while(width < maxEntries && width < (1 << 26)){
+                width <<= 1;
+            }
+            this.rows = new byte[SEEDS.length][width];
+            this.mask = width - 1;
+            this.sampleSize = (int) Math.min(10L * maxEntries, Integer.MAX_VALUE);
+        }
+
+        void increment(int hash){
+            var added = false;
+            for (int i = 0; i < rows.length; i++) {
+                var slot = indexOf(hash, i);
+                if(rows[i][slot] < MAX_COUNT){
+                    rows[i][slot]++;
+                    added = true;
+                }
+            }
+            if(added && ++additions >= sampleSize){
+                age();
+            }
+        }
+
+        int frequency(int hash){
+            int min = MAX_COUNT;
+            for (int i = 0; i < rows.length; i++) {
+                min = Math.min(min, rows[i][indexOf(hash, i)]);
+            }
+            return min;
+        }
+
+        private int indexOf(int hash, int row){
+            return HashSpreader.MURMUR3.spread(hash * SEEDS[row]) & mask;
+        }
+
+        private void age(){
+            for (var row : rows) {
+                for (int i = 0; i < row.length; i++) {
+                    row[i] >>= 1;
+                }
+            }
+            additions >>= 1;
+        }
+    }
+}
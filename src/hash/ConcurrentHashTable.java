@@ -0,0 +1,360 @@
+package hash;
+
+import dynamicList.DynamicArray;
+import dynamicList.DynamicList;
+import hashpub.DictionaryIdea;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Thread-safe implementation of DictionaryIdea.
+ *
+ * The table is split into lock-striped segments, each owning its own bucket array.
+ * Reads never lock: they read the segment's volatile bucket array and walk
+ * chains of nodes whose value and next links are volatile.
+ * Writes lock only the segment the key hashes to, and every segment resizes
+ * on its own, so concurrent writers spread resize work across segments
+ * instead of stopping the whole table.
+ * size() and keys() are weakly consistent while writers are active.
+ */
+public class ConcurrentHashTable<k,v> implements DictionaryIdea<k,v> {
+
+    //instance variables
+    private static final int DEFAULT_CAP = 16;
+    private static final double DEFAULT_MAX_LOAD = .75;
+    private static final int DEFAULT_CONCURRENCY = 16;
+    private static final int MAX_SEGMENTS = 1 << 16;
+    private static final int MAX_SEGMENT_CAP = 1 << 30;
+
+    private final Segment<k,v>[] segments;
+    private final int segmentShift;
+    private final int segmentMask;
+
+
+    //constructors
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private ConcurrentHashTable(int initCapacity, double maxLoadRatio, int concurrencyLevel){
+        if(initCapacity < 0)
+            throw new IllegalArgumentException("capacity must be greater than zero");
+        if(maxLoadRatio <= 0)
+            throw new IllegalArgumentException("maxLoadRatio must be greater than zero");
+        if(concurrencyLevel <= 0)
+            throw new IllegalArgumentException("concurrencyLevel must be greater than zero");
+
+        var shift = 0;
+        var segmentCount = 1;
+        while(segmentCount < concurrencyLevel && segmentCount < MAX_SEGMENTS){
+            segmentCount <<= 1;
+            shift++;
+        }
+        this.segmentShift = 32 - shift;
+        this.segmentMask = segmentCount - 1;
+
+        var perSegment = 1;
+        while(perSegment * segmentCount < initCapacity){
+            perSegment <<= 1;
+        }
+
+        this.segments = (Segment<k,v>[]) new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment<>(perSegment, maxLoadRatio);
+        }
+    }
+
+    public static <k,v> ConcurrentHashTable<k,v> newEmpty(){
+        return fromCapacityMaxLoadRatioConcurrency(DEFAULT_CAP, DEFAULT_MAX_LOAD, DEFAULT_CONCURRENCY);
+    }
+
+    public static <k,v> ConcurrentHashTable<k,v> fromCapacityMaxLoadRatio(int initCapacity, double maxLoadRatio){
+        return fromCapacityMaxLoadRatioConcurrency(initCapacity, maxLoadRatio, DEFAULT_CONCURRENCY);
+    }
+
+    /**
+     * concurrencyLevel is the expected number of concurrently writing threads;
+     * it is rounded up to a power of two and used as the number of lock stripes.
+     */
+    public static <k,v> ConcurrentHashTable<k,v> fromCapacityMaxLoadRatioConcurrency(int initCapacity, double maxLoadRatio, int concurrencyLevel){
+        return new ConcurrentHashTable<>(initCapacity, maxLoadRatio, concurrencyLevel);
+    }
+
+    public boolean isEmpty(){
+        for (var segment : segments) {
+            if(segment.count != 0)
+                return false;
+        }
+        return true;
+    }
+
+    @Override
+    public v put(k key, v value) {
+        if(value == null){
+            throw new NullPointerException("value cannot be equal to null");
+        }
+        if(key == null){
+            throw new NullPointerException("key cannot be equal to null");
+        }
+
+        var h = hash(key);
+        return segmentFor(h).put(h, key, value);
+    }
+
+    @Override
+    public int size() {
+        long sum = 0;
+        for (var segment : segments) {
+            sum += segment.count;
+        }
+        return (int) Math.min(sum, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public boolean containsKey(k key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public v get(k key) {
+        var h = hash(key);
+        return segmentFor(h).get(h, key);
+    }
+
+    /**
+     * Atomic: the provider is called at most once per absent key, even when
+     * several threads ask for the same key at the same time.
+     * The provider runs while the key's segment is locked, so it must not
+     * write to this table.
+     */
+    @Override
+    public v getIfAbsentPut(k key, Function<k, v> provider) {
+        var h = hash(key);
+        var segment = segmentFor(h);
+
+        var current = segment.get(h, key);
+        if(current != null)
+            return current;
+
+        return segment.putIfAbsent(h, key, provider);
+    }
+
+    @Override
+    public DynamicList<k> keys() {
+        DynamicList<k> d = DynamicArray.newEmpty();
+
+        for (var segment : segments) {
+            var table = segment.table;
+            for (int i = 0; i < table.length(); i++) {
+                for (var e = table.get(i); e != null; e = e.next) {
+                    d.add(e.key);
+                }
+            }
+        }
+
+        return d;
+    }
+
+    @Override
+    public v removeKey(k key) {
+        var h = hash(key);
+        v v = segmentFor(h).remove(h, key);
+
+        if(v == null){
+            throw new RuntimeException(String.format("key: %s does not exist", key));
+        }
+        return v;
+    }
+
+    @Override
+    public v removeKeyIfAbsent(k key, Supplier<v> supplier) {
+        var h = hash(key);
+        var j = segmentFor(h).remove(h, key);
+
+        if(j == null){
+            j = supplier.get();
+        }
+
+        return j;
+    }
+
+    @Override
+    public int bucketCount() {
+        var count = 0;
+        for (var segment : segments) {
+            count += segment.table.length();
+        }
+        return count;
+    }
+
+    public String toString(){
+
+        StringBuilder sb = new StringBuilder();
+
+        sb.append('{');
+
+        for (var segment : segments) {
+            var table = segment.table;
+            for (int i = 0; i < table.length(); i++) {
+                for (var e = table.get(i); e != null; e = e.next) {
+                    sb.append(e.key).append(" = ").append(e.value).append(", ");
+                }
+            }
+        }
+
+        return sb.append('}').toString();
+    }
+
+    //utils
+
+    // murmur3: the high bits pick the segment and the low bits pick the bucket, so both must be mixed
+    private int hash(k key){
+        return HashSpreader.MURMUR3.spread(key.hashCode());
+    }
+
+    private Segment<k,v> segmentFor(int h){
+        return segments[(h >>> segmentShift) & segmentMask];
+    }
+
+
+    //segment
+    private static class Segment<k,v> extends ReentrantLock {
+
+        private static final long serialVersionUID = 1L;
+
+        private final double maxLoadRatio;
+        private volatile AtomicReferenceArray<Node<k,v>> table;
+        private volatile int count;
+        private int threshold;
+
+        Segment(int initCapacity, double maxLoadRatio){
+            this.maxLoadRatio = maxLoadRatio;
+            setTable(new AtomicReferenceArray<>(initCapacity));
+        }
+
+        v get(int h, k key){
+            var tab = table;
+            for (var e = tab.get(h & (tab.length() - 1)); e != null; e = e.next) {
+                if(e.hash == h && e.key.equals(key))
+                    return e.value;
+            }
+            return null;
+        }
+
+        v put(int h, k key, v value){
+            lock();
+            try {
+                var tab = table;
+                var index = h & (tab.length() - 1);
+                var first = tab.get(index);
+
+                for (var e = first; e != null; e = e.next) {
+                    if(e.hash == h && e.key.equals(key)){
+                        var old = e.value;
+                        e.value = value;
+                        return old;
+                    }
+                }
+
+                addNode(tab, index, new Node<>(h, key, value, first));
+                return null;
+            } finally {
+                unlock();
+            }
+        }
+
+        v putIfAbsent(int h, k key, Function<k, v> provider){
+            lock();
+            try {
+                var tab = table;
+                var index = h & (tab.length() - 1);
+                var first = tab.get(index);
+
+                for (var e = first; e != null; e = e.next) {
+                    if(e.hash == h && e.key.equals(key))
+                        return e.value;
+                }
+
+                var value = provider.apply(key);
+                if(value == null){
+                    throw new NullPointerException("value cannot be equal to null");
+                }
+                addNode(tab, index, new Node<>(h, key, value, first));
+                return value;
+            } finally {
+                unlock();
+            }
+        }
+
+        v remove(int h, k key){
+            lock();
+            try {
+                var tab = table;
+                var index = h & (tab.length() - 1);
+
+                Node<k,v> prev = null;
+                for (var e = tab.get(index); e != null; prev = e, e = e.next) {
+                    if(e.hash == h && e.key.equals(key)){
+                        // readers already on "e" can still follow e.next
+                        if(prev == null)
+                            tab.set(index, e.next);
+                        else
+                            prev.next = e.next;
+                        count--;
+                        return e.value;
+                    }
+                }
+                return null;
+            } finally {
+                unlock();
+            }
+        }
+
+        // caller holds the lock
+        private void addNode(AtomicReferenceArray<Node<k,v>> tab, int index, Node<k,v> node){
+            tab.set(index, node);
+            var c = count + 1;
+            count = c;
+            if(c > threshold && tab.length() < MAX_SEGMENT_CAP){
+                rehash(tab);
+            }
+        }
+
+        // caller holds the lock; nodes are copied so readers still on the old table see complete chains
+        private void rehash(AtomicReferenceArray<Node<k,v>> oldTab){
+            var newTab = new AtomicReferenceArray<Node<k,v>>(oldTab.length() << 1);
+            var newMask = newTab.length() - 1;
+
+            for (int i = 0; i < oldTab.length(); i++) {
+                for (var e = oldTab.get(i); e != null; e = e.next) {
+                    var index = e.hash & newMask;
+                    newTab.set(index, new Node<>(e.hash, e.key, e.value, newTab.get(index)));
+                }
+            }
+
+            setTable(newTab);
+        }
+
+        private void setTable(AtomicReferenceArray<Node<k,v>> newTab){
+            threshold = (int) Math.min(newTab.length() * maxLoadRatio, Integer.MAX_VALUE);
+            table = newTab;
+        }
+    }
+
+    //node
+    private static class Node<k,v> {
+
+        final int hash;
+        final k key;
+        volatile v value;
+        volatile Node<k,v> next;
+
+        Node(int hash, k key, v value, Node<k,v> next){
+            this.hash = hash;
+            this.key = key;
+            this.value = value;
+            this.next = next;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package hash;
+
+/**
+ * Which entry a BoundedCache drops once it holds more than its max entries.
+ */
+public enum EvictionPolicy {
+
+    /**
+     * Least recently used: evict the entry whose last get/put is oldest.
+     */
+    LRU,
+
+    /**
+     * Least frequently used: evict the entry with the fewest hits
+     * (ties broken by least recently used).
+     */
+    LFU,
+
+    /**
+     * Window TinyLFU: a small LRU window admits new entries; an entry leaving the
+     * window only displaces an entry of the main (segmented LRU) region if a
+     * frequency sketch says it has been requested more often.
+     * Resists one-off scans while still adapting to recency.
+     */
+    W_TINY_LFU
+}
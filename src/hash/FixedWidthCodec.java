@@ -0,0 +1,71 @@
+package hash;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Encodes values of type t into exactly width() bytes, for tables that store
+ * keys and values in fixed-size slots (see MappedHashTable).
+ *
+ * write/read use absolute ByteBuffer positions and never move the buffer's position.
+ * Two keys must be equal exactly when their encodings are equal, because the
+ * table hashes and compares the encoded bytes.
+ */
+public interface FixedWidthCodec<t> {
+
+    int width();
+
+    void write(t value, ByteBuffer target, int offset);
+
+    t read(ByteBuffer source, int offset);
+
+    FixedWidthCodec<Integer> INT = new FixedWidthCodec<>() {
+        public int width() { return Integer.BYTES; }
+        public void write(Integer value, ByteBuffer target, int offset) { target.putInt(offset, value); }
+        public Integer read(ByteBuffer source, int offset) { return source.getInt(offset); }
+    };
+
+    FixedWidthCodec<Long> LONG = new FixedWidthCodec<>() {
+        public int width() { return Long.BYTES; }
+        public void write(Long value, ByteBuffer target, int offset) { target.putLong(offset, value); }
+        public Long read(ByteBuffer source, int offset) { return source.getLong(offset); }
+    };
+
+    // doubleToLongBits collapses every NaN to one encoding, so equal Doubles always encode equally
+    FixedWidthCodec<Double> DOUBLE = new FixedWidthCodec<>() {
+        public int width() { return Double.BYTES; }
+        public void write(Double value, ByteBuffer target, int offset) { target.putLong(offset, Double.doubleToLongBits(value)); }
+        public Double read(ByteBuffer source, int offset) { return Double.longBitsToDouble(source.getLong(offset)); }
+    };
+
+    /**
+     * UTF-8 strings of at most maxBytes encoded bytes (2-byte length prefix, zero padded)
+     * Throws IllegalArgumentException when writing a longer string
+     */
+    static FixedWidthCodec<String> utf8(int maxBytes) {
+        if(maxBytes <= 0 || maxBytes > 0xFFFF)
+            throw new IllegalArgumentException("maxBytes must be between 1 and 65535");
+
+        return new FixedWidthCodec<>() {
+            public int width() { return 2 + maxBytes; }
+
+            public void write(String value, ByteBuffer target, int offset) {
+                var bytes = value.getBytes(StandardCharsets.UTF_8);
+                if(bytes.length > maxBytes)
+                    throw new IllegalArgumentException(String.format("\"%s\" needs %d bytes, codec allows %d", value, bytes.length, maxBytes));
+
+                target.putShort(offset, (short) bytes.length);
+                target.put(offset + 2, bytes);
+                for (int i = offset + 2 + bytes.length; i < offset + 2 + maxBytes; i++) {
+                    target.put(i, (byte) 0);
+                }
+            }
+
+            public String read(ByteBuffer source, int offset) {
+                var bytes = new byte[source.getShort(offset) & 0xFFFF];
+                source.get(offset + 2, bytes);
+                return new String(bytes, StandardCharsets.UTF_8);
+            }
+        };
+    }
+}
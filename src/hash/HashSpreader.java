@@ -0,0 +1,40 @@
+package hash;
+
+/**
+ * Hash-spreading functions applied to key.hashCode() before a hashed
+ * table masks it down to a (power-of-two) bucket index.
+ *
+ * Masking only looks at the low bits of the hash, so keys whose hashCodes
+ * differ only in their high bits would collide without spreading.
+ */
+public enum HashSpreader {
+
+    /**
+     * Fold the high half into the low half (same idea as java.util.HashMap).
+     * Very cheap, good enough for most key types.
+     */
+    XOR_SHIFT {
+        @Override
+        public int spread(int h) {
+            return h ^ (h >>> 16);
+        }
+    },
+
+    /**
+     * Murmur3 32-bit finalizer (fmix32). Every input bit affects every output bit,
+     * which fixes clustering for keys with poor low bits at the cost of two multiplies.
+     */
+    MURMUR3 {
+        @Override
+        public int spread(int h) {
+            h ^= h >>> 16;
+            h *= 0x85ebca6b;
+            h ^= h >>> 13;
+            h *= 0xc2b2ae35;
+            h ^= h >>> 16;
+            return h;
+        }
+    };
+
+    public abstract int spread(int h);
+}
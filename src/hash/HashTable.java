@@ -2,34 +2,74 @@ package hash;
 
 import dynamicList.DynamicArray;
 import dynamicList.DynamicList;
-import dynamicList.LinkedList;
 import hashpub.DictionaryIdea;
-
+import hashpub.EntryView;
+import snapshot.ElementCodec;
+import snapshot.Snapshot;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StreamCorruptedException;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
-public class HashTable<k,v> implements DictionaryIdea<k,v> {
+public class HashTable<k,v> implements DictionaryIdea<k,v>, Iterable<EntryView<k,v>> {
 
     //instance variables
     private static final int DEFAULT_CAP = 16;
     private static final double DEFAULT_MAX_LOAD = .75;
+    private static final int MAX_CAP = 1 << 30;
+    // old buckets moved to the new table per operation while an incremental resize is running
+    private static final int MIGRATE_STEP = 8;
+    // a bucket whose scan passes TREEIFY_THRESHOLD entries is indexed by a balanced tree
+    // (keys must be Comparable); the tree is dropped again at UNTREEIFY_THRESHOLD
+    private static final int TREEIFY_THRESHOLD = 8;
+    private static final int UNTREEIFY_THRESHOLD = 6;
     private final double maxLoadRatio;
+    private final boolean incremental;
+    private final HashSpreader spreader;
 
     private int size;
-    private DynamicArray<LinkedList<Entry<k, v>>> buckets;
+    private Entry<k, v>[] buckets;
+    // lazily allocated, parallel to buckets: trees[i] indexes the (unchanged) chain buckets[i]
+    private TreeBin<k, v>[] trees;
+    // lazily allocated, parallel to buckets: chain length at the last failed treeify (0 = none)
+    private int[] treeifyFailedAt;
+
+    // incremental resize state: non-null while entries still live in the previous table
+    private Entry<k, v>[] oldBuckets;
+    private int migrateIndex;
+    private long worstResizeStepNanos;
 
 
     //constructors
 
-    private HashTable(int initCapacity, double maxLoadRatio){
+    private HashTable(int initCapacity, double maxLoadRatio, boolean incremental, HashSpreader spreader){
         if(initCapacity < 0)
             throw new IllegalArgumentException("capacity must be greater than zero");
         if(maxLoadRatio < 0)
             throw new IllegalArgumentException("maxLoadRatio must be greater than zero");
 
-        this.buckets = initBuckets(initCapacity);
+        if(spreader == null)
+            throw new NullPointerException("spreader cannot be equal to null");
+
+        this.buckets = initBuckets(capacityFor(initCapacity));
         this.size = 0;
         this.maxLoadRatio = maxLoadRatio;
+        this.incremental = incremental;
+        this.spreader = spreader;
     }
 
     public static <k,v>HashTable<k,v> newEmpty(){
@@ -37,13 +77,50 @@ public class HashTable<k,v> implements DictionaryIdea<k,v> {
     }
 
     public static <k,v> HashTable<k,v> fromCapacityMaxLoadRatio(int initCapacity, double maxLoadRatio){
-        return new HashTable<>(initCapacity, maxLoadRatio);
+        return new HashTable<>(initCapacity, maxLoadRatio, false, HashSpreader.XOR_SHIFT);
+    }
+
+    /**
+     * Return a table that applies the given spreading function to every key.hashCode().
+     * The bucket count is always rounded up to a power of two.
+     */
+    public static <k,v> HashTable<k,v> fromCapacityMaxLoadRatioSpreader(int initCapacity, double maxLoadRatio, HashSpreader spreader){
+        return new HashTable<>(initCapacity, maxLoadRatio, false, spreader);
+    }
+
+    /**
+     * Return a table that resizes incrementally: when the load ratio is exceeded the
+     * old bucket array is kept and a bounded number of its buckets is moved on each
+     * put, get or remove, so no single operation pays for the whole rehash.
+     */
+    public static <k,v> HashTable<k,v> fromCapacityMaxLoadRatioIncremental(int initCapacity, double maxLoadRatio){
+        return new HashTable<>(initCapacity, maxLoadRatio, true, HashSpreader.XOR_SHIFT);
     }
 
     public boolean isEmpty(){
         return size == 0;
     }
 
+    /**
+     * Return true while an incremental resize is still moving buckets
+     */
+    public boolean isResizing(){
+        return oldBuckets != null;
+    }
+
+    /**
+     * Return the slowest single put/get/remove (in nanoseconds) observed while
+     * a resize was in progress. For a stop-the-world table this is the cost of
+     * the operation that performed the full rehash.
+     */
+    public long worstResizeStepNanos(){
+        return worstResizeStepNanos;
+    }
+
+    public void resetResizeStats(){
+        worstResizeStepNanos = 0;
+    }
+
     @Override
     public v put(k key, v value) {
 
@@ -54,68 +131,135 @@ public class HashTable<k,v> implements DictionaryIdea<k,v> {
             throw new NullPointerException("value cannot be equal to null");
         }
 
-        var ratio = (double)size()/bucketCount();
-
-        if(ratio >= maxLoadRatio){
-            rehash();
-        }
-        var index = hashToIndex(hash(key));
-
-        var table = buckets;
-        var bucket = table.get(index);
+        var start = isResizing() ? System.nanoTime() : 0L;
+        var h = hash(key);
+        var table = prepareBucket(h);
 
-        var bucketIndex = bucket.find(kvEntry -> kvEntry.key.equals(key));
+        var index = hashToIndex(h, table.length);
+        var e = findEntry(index, h, key);
 
-        if(bucketIndex == -1){
-            bucket.add(new Entry<>(key, value));
+        v old = null;
+        if(e == null){
+            linkEntry(index, new Entry<>(h, key, value, table[index]));
             size++;
+            if((double)size/bucketCount() >= maxLoadRatio){
+                if(start == 0L)
+                    start = System.nanoTime();
+                growBuckets(bucketCount() << 1);
+            }
         } else {
-            var e = bucket.get(bucketIndex);
-            var old = e.value;
+            old = e.value;
             e.value = value;
+        }
 
-            return old;
+        recordStep(start);
+        return old;
+    }
+
+    /**
+     * Grow the table (once) so that it can hold "expectedSize" associations
+     * without crossing the max load ratio
+     */
+    public void ensureCapacity(int expectedSize){
+        if(isResizing())
+            finishMigration();
+
+        var needed = bucketCount();
+        while((double)expectedSize/needed >= maxLoadRatio && needed < MAX_CAP){
+            needed <<= 1;
+        }
+        if(needed > bucketCount()){
+            growBuckets(needed);
+            if(isResizing())
+                finishMigration();
         }
+    }
 
+    /**
+     * Presizes once for the final size, then inserts without per-put load checks
+     */
+    @Override
+    public void putAll(k[] keys, v[] values) {
+        if (keys.length != values.length)
+            throw new IllegalArgumentException(String.format("%d keys but %d values", keys.length, values.length));
+        for (int i = 0; i < keys.length; i++) {
+            if(keys[i] == null || values[i] == null)
+                throw new NullPointerException(String.format("null key or value at index %d", i));
+        }
 
-        return null;
+        ensureCapacity(size + keys.length);
+        for (int i = 0; i < keys.length; i++) {
+            putPresized(keys[i], values[i]);
+        }
     }
 
+    /**
+     * Presizes once for the combined size; another HashTable is walked bucket by
+     * bucket (reusing its cached hashes) instead of going through keys()
+     */
     @Override
-    public int size() {
-        return size;
+    public void putAll(DictionaryIdea<k, v> other) {
+        if(!(other instanceof HashTable)){
+            DictionaryIdea.super.putAll(other);
+            return;
+        }
+
+        var source = (HashTable<k, v>) other;
+        ensureCapacity(size + source.size());
+        var reuseHash = source.spreader == spreader;
+        putAllPresized(source.oldBuckets, reuseHash);
+        putAllPresized(source.buckets, reuseHash);
     }
 
     @Override
-    public boolean containsKey(k key) {
+    public v[] getAll(DynamicList<k> keys, v[] results) {
+        if (results.length < keys.size())
+            throw new IllegalArgumentException(String.format("results holds %d values but %d keys were passed", results.length, keys.size()));
+        if(isResizing())
+            finishMigration();
+
+        var table = buckets;
+        var i = 0;
+        for (k key : keys) {
+            var h = hash(key);
+            var e = findEntry(hashToIndex(h, table.length), h, key);
+            results[i++] = e == null ? null : e.value;
+        }
+        return results;
+    }
 
-        var index = hashToIndex(hash(key));
-        var bucket = buckets.get(index);
+    @Override
+    public int removeAll(DynamicList<k> keys) {
+        if(isResizing())
+            finishMigration();
 
-        for (int i = 0; i < bucket.size(); i++) {
-            if (bucket.get(i).key.equals(key))
-                return true;
+        var before = size;
+        for (k key : keys) {
+            removeFromTable(key, hash(key));
         }
+        return before - size;
+    }
 
-        return false;
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(k key) {
+        return get(key) != null;
     }
 
     @Override
     public v get(k key) {
-        v w = null;
-        var s = hashToIndex(hash(key));
-        var table = buckets;
-        var bucket = table.get(s);
-            for (int i = 0; i <bucket.size() ; i++) {
+        var start = isResizing() ? System.nanoTime() : 0L;
+        var h = hash(key);
+        var table = prepareBucket(h);
 
-                var current = bucket.get(i);
-                if(current.key.equals(key)){
-                    w = current.getValue();
-                    break;
-                }
-            }
+        var e = findEntry(hashToIndex(h, table.length), h, key);
 
-        return w;
+        recordStep(start);
+        return e == null ? null : e.getValue();
     }
 
 
@@ -136,32 +280,163 @@ public class HashTable<k,v> implements DictionaryIdea<k,v> {
     public DynamicList<k> keys() {
         DynamicList<k> d = DynamicArray.newEmpty();
 
-        for (int i = 0; i < buckets.size(); i++) {
-            if(!buckets.get(i).isEmpty())
-                for (int j = 0; j < buckets.get(i).size(); j++) {
-                    d.add(buckets.get(i).get(j).key);
-                }
-        }
+        addKeys(oldBuckets, d);
+        addKeys(buckets, d);
 
         return d;
     }
 
     private v remove(k key) {
-        var index = hashToIndex(hash(key));
-        v v = null;
+        var start = isResizing() ? System.nanoTime() : 0L;
+        var h = hash(key);
+        prepareBucket(h);
+        var v = removeFromTable(key, h);
+
+        recordStep(start);
+        return v;
+    }
 
-        var bucket = buckets.get(index);
-        for (int i = 0; i < bucket.size(); i++) {
-            var current = bucket.get(i);
-            if(current.key.equals(key)){
-                v = current.value;
+    // caller has already migrated the key's bucket
+    private v removeFromTable(k key, int h) {
+        var table = buckets;
+        var index = hashToIndex(h, table.length);
+        var tree = treeAt(index);
+
+        var e = findEntry(index, h, key);
+        if(e == null)
+            return null;
+
+        if(e.prev == null)
+            table[index] = e.next;
+        else
+            e.prev.next = e.next;
+        if(e.next != null)
+            e.next.prev = e.prev;
+        size--;
+
+        // same branch as findEntry: if the tree could not order "key", "e" came from the chain scan
+        if(tree != null && (!tree.canOrder(key) || !tree.remove(e)))
+            trees[index] = null;
+        return e.value;
+    }
 
-                bucket.removeIndex(i);
-                size--;
-            }
+    /**
+     * Visit every association, walking the buckets directly (no key copy, no re-hashing)
+     */
+    public void forEach(BiConsumer<? super k, ? super v> visitFct) {
+        if(isResizing())
+            finishMigration();
 
+        for (var bucket : buckets) {
+            for (var e = bucket; e != null; e = e.next) {
+                visitFct.accept(e.key, e.value);
+            }
         }
-        return v;
+    }
+
+    /**
+     * Write a checksummed binary snapshot of this table (format: see snapshot.Snapshot).
+     * Payload: bucket count, maxLoadRatio, incremental flag, spreader, size, then every key/value pair
+     */
+    public void writeTo(OutputStream out, ElementCodec<k> keyCodec, ElementCodec<v> valueCodec) throws IOException {
+        if(isResizing())
+            finishMigration();
+
+        Snapshot.write(out, Snapshot.HASH_TABLE, data -> {
+            data.writeInt(buckets.length);
+            data.writeDouble(maxLoadRatio);
+            data.writeBoolean(incremental);
+            data.writeUTF(spreader.name());
+            data.writeInt(size);
+            for (var bucket : buckets) {
+                for (var e = bucket; e != null; e = e.next) {
+                    keyCodec.write(e.key, data);
+                    valueCodec.write(e.value, data);
+                }
+            }
+        });
+    }
+
+    public void writeTo(WritableByteChannel out, ElementCodec<k> keyCodec, ElementCodec<v> valueCodec) throws IOException {
+        writeTo(Channels.newOutputStream(out), keyCodec, valueCodec);
+    }
+
+    /**
+     * Return the table saved by writeTo, allocated at its saved bucket count,
+     * so restoring never resizes (keys are re-hashed with their hashCode in this JVM)
+     * Throws StreamCorruptedException if the snapshot is invalid
+     */
+    public static <k,v> HashTable<k,v> readFrom(InputStream in, ElementCodec<k> keyCodec, ElementCodec<v> valueCodec) throws IOException {
+        return Snapshot.read(in, Snapshot.HASH_TABLE, data -> {
+            var bucketCount = data.readInt();
+            var maxLoadRatio = data.readDouble();
+            var incremental = data.readBoolean();
+            var spreaderName = data.readUTF();
+            var count = data.readInt();
+            // validate everything the constructor would reject, so corruption never surfaces as another exception
+            if(bucketCount <= 0 || bucketCount > MAX_CAP || Integer.bitCount(bucketCount) != 1 || count < 0
+                    || !(maxLoadRatio > 0))
+                throw new StreamCorruptedException("snapshot table layout is invalid");
+
+            HashSpreader spreader;
+            try {
+                spreader = HashSpreader.valueOf(spreaderName);
+            } catch (IllegalArgumentException e) {
+                throw new StreamCorruptedException(String.format("snapshot names unknown spreader %s", spreaderName));
+            }
+
+            var table = new HashTable<k,v>(bucketCount, maxLoadRatio, incremental, spreader);
+            for (int i = 0; i < count; i++) {
+                var key = keyCodec.read(data);
+                table.putPresized(key, valueCodec.read(data));
+            }
+            return table;
+        });
+    }
+
+    public static <k,v> HashTable<k,v> readFrom(ReadableByteChannel in, ElementCodec<k> keyCodec, ElementCodec<v> valueCodec) throws IOException {
+        return readFrom(Channels.newInputStream(in), keyCodec, valueCodec);
+    }
+
+    /**
+     * Return a cursor over all associations. The cursor is its own view:
+     * each advance() moves the same object to the next association.
+     * Call reset() to scan again without allocating a new cursor.
+     */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * Return iterator on the associations of this table. Every next()
+     * returns the same (moved) view object, see cursor().
+     */
+    @Override
+    public Iterator<EntryView<k,v>> iterator() {
+        return new Cursor();
+    }
+
+    /**
+     * Return a spliterator over the associations that splits by bucket range.
+     * It hands out the table's own entries (not a moving view like iterator()),
+     * so elements can be kept and used from any thread.
+     * Only the unsplit spliterator is SIZED; split halves estimate their size.
+     * The table must not change while it is in use.
+     */
+    @Override
+    public Spliterator<EntryView<k,v>> spliterator() {
+        if(isResizing())
+            finishMigration();
+
+        return new BucketSpliterator<>(buckets, 0, buckets.length, size, true);
+    }
+
+    public Stream<EntryView<k,v>> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    public Stream<EntryView<k,v>> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
     }
 
     @Override
@@ -191,7 +466,7 @@ public class HashTable<k,v> implements DictionaryIdea<k,v> {
 
     @Override
     public int bucketCount() {
-        return buckets.size();
+        return buckets.length;
     }
 
     public String toString(){
@@ -204,72 +479,554 @@ public class HashTable<k,v> implements DictionaryIdea<k,v> {
 
         sb.append('{');
 
-        for (int i = 0; i < bucketCount(); i++) {
+        appendEntries(oldBuckets, sb);
+        appendEntries(buckets, sb);
+
+        return sb.append('}').toString();
+    }
+
+    //utils
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Entry<k,v>[] initBuckets(int length){
+        return (Entry<k,v>[]) new Entry[length];
+    }
+
+    private int capacityFor(int requested){
+        var cap = 1;
+        while(cap < requested && cap < MAX_CAP){
+            cap <<= 1;
+        }
+        return cap;
+    }
+
+    private int hash(k key){
+        return spreader.spread(key.hashCode());
+    }
+
+    // bucketCount is always a power of two
+    private int hashToIndex(int hash, int bucketCount){
+        return hash & (bucketCount - 1);
+    }
+
+    private Entry<k,v> findEntry(int index, int h, k key){
+        var tree = treeAt(index);
+        if(tree != null && tree.canOrder(key))
+            return tree.find(h, key);
+
+        var scanned = 0;
+        for (var e = buckets[index]; e != null; e = e.next) {
+            if(e.hash == h && e.key.equals(key))
+                return e;
+            scanned++;
+        }
+        if(scanned >= TREEIFY_THRESHOLD && tree == null)
+            treeify(index, scanned);
+        return null;
+    }
+
+    // put "e" (already pointing at the old head) at the head of bucket "index"
+    private void linkEntry(int index, Entry<k,v> e){
+        e.prev = null;
+        if(e.next != null)
+            e.next.prev = e;
+        buckets[index] = e;
+
+        var tree = treeAt(index);
+        if(tree != null && !tree.add(e))
+            trees[index] = null;
+    }
+
+    private TreeBin<k,v> treeAt(int index){
+        var t = trees;
+        return t == null ? null : t[index];
+    }
+
+    // "length" is the chain length; a chain that could not be ordered is only retried once it changes
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void treeify(int index, int length){
+        var failed = treeifyFailedAt;
+        if(failed != null && failed[index] == length)
+            return;
+
+        var tree = TreeBin.fromChain(buckets[index]);
+        if(tree == null){
+            if(failed == null)
+                failed = treeifyFailedAt = new int[buckets.length];
+            failed[index] = length;
+            return;
+        }
+        if(trees == null)
+            trees = (TreeBin<k,v>[]) new TreeBin[buckets.length];
+        trees[index] = tree;
+    }
+
+    /**
+     * Advance any running incremental resize and make sure the bucket for
+     * hash "h" has been moved, so the caller can work on the current table only
+     */
+    private Entry<k,v>[] prepareBucket(int h){
+        if(isResizing()){
+            migrateBucket(hashToIndex(h, oldBuckets.length));
+            migrateStep();
+        }
+        return buckets;
+    }
+
+    private void growBuckets(int newLength){
+        if(buckets.length >= MAX_CAP)
+            return;
+        if(isResizing()){
+            finishMigration();
+        }
+
+        oldBuckets = buckets;
+        migrateIndex = 0;
+        buckets = initBuckets(newLength);
+        // chains are re-split by the move; buckets that stay long are re-treeified on their next scan
+        trees = null;
+        treeifyFailedAt = null;
+
+        if(!incremental){
+            finishMigration();
+        }
+    }
+
+    private void migrateStep(){
+        var old = oldBuckets;
+        var end = Math.min(migrateIndex + MIGRATE_STEP, old.length);
+        for (; migrateIndex < end; migrateIndex++) {
+            migrateBucket(migrateIndex);
+        }
+        if(migrateIndex == old.length){
+            oldBuckets = null;
+        }
+    }
+
+    private void finishMigration(){
+        for (; migrateIndex < oldBuckets.length; migrateIndex++) {
+            migrateBucket(migrateIndex);
+        }
+        oldBuckets = null;
+    }
+
+    // relink entries of one old bucket into the new table (no re-hashing, no allocation)
+    private void migrateBucket(int oldIndex){
+        var table = buckets;
+        var e = oldBuckets[oldIndex];
+        oldBuckets[oldIndex] = null;
+
+        while(e != null){
+            var next = e.next;
+            var index = hashToIndex(e.hash, table.length);
+            e.next = table[index];
+            linkEntry(index, e);
+            e = next;
+        }
+    }
+
+    // table is already large enough and not resizing
+    private void putPresized(k key, v value){
+        var h = hash(key);
+        var table = buckets;
+        var index = hashToIndex(h, table.length);
+        var e = findEntry(index, h, key);
 
-            var bucket = buckets.get(i);
+        if(e == null){
+            linkEntry(index, new Entry<>(h, key, value, table[index]));
+            size++;
+        } else {
+            e.value = value;
+        }
+    }
 
-            if (!bucket.isEmpty()){
-                for (int j = 0; j < bucket.size(); j++) {
-                    sb.append(bucket.get(j).toString()).append(", ");
+    private void putAllPresized(Entry<k,v>[] source, boolean reuseHash){
+        if(source == null)
+            return;
+        var table = buckets;
+        for (var bucket : source) {
+            for (var s = bucket; s != null; s = s.next) {
+                var h = reuseHash ? s.hash : hash(s.key);
+                var index = hashToIndex(h, table.length);
+                var e = findEntry(index, h, s.key);
+
+                if(e == null){
+                    linkEntry(index, new Entry<>(h, s.key, s.value, table[index]));
+                    size++;
+                } else {
+                    e.value = s.value;
                 }
             }
         }
+    }
 
-        return sb.append('}').toString();
+    private void recordStep(long start){
+        if(start != 0L){
+            var elapsed = System.nanoTime() - start;
+            if(elapsed > worstResizeStepNanos)
+                worstResizeStepNanos = elapsed;
+        }
     }
 
-    //utils
-    private DynamicArray<LinkedList<Entry<k,v>>> initBuckets(int length){
-        DynamicArray<LinkedList<Entry<k,v>>> newBuckets = DynamicArray.newEmpty();
-        for (int i = 0; i < length; i++) {
-            newBuckets.add(LinkedList.newEmpty());
+    private void addKeys(Entry<k,v>[] table, DynamicList<k> d){
+        if(table == null)
+            return;
+        for (var bucket : table) {
+            for (var e = bucket; e != null; e = e.next) {
+                d.add(e.key);
+            }
         }
-        return newBuckets;
     }
 
-    private int hash(k key){
-        int hash;
-        if (key instanceof Integer){
-            var h = (Integer)key;
-            hash = Integer.hashCode(h);
-        } else {
-            hash = key.hashCode();
+    private void appendEntries(Entry<k,v>[] table, StringBuilder sb){
+        if(table == null)
+            return;
+        for (var bucket : table) {
+            for (var e = bucket; e != null; e = e.next) {
+                sb.append(e.toString()).append(", ");
+            }
+        }
+    }
+
+
+    //cursor
+
+    /**
+     * Reusable view over the associations of this table.
+     * Putting new keys or removing keys while a cursor is in use
+     * may cause associations to be skipped or seen twice.
+     */
+    public class Cursor implements EntryView<k,v>, Iterator<EntryView<k,v>> {
+
+        private Entry<k,v>[] table;
+        private int bucketIndex;
+        private Entry<k,v> current;
+        private Entry<k,v> next;
+
+        private Cursor(){
+            reset();
+        }
+
+        /**
+         * Rewind to before the first association
+         */
+        public void reset() {
+            if(isResizing())
+                finishMigration();
+
+            table = buckets;
+            bucketIndex = 0;
+            current = null;
+            next = null;
+            findNext();
+        }
+
+        /**
+         * Move to the next association, return false if there is none
+         */
+        public boolean advance() {
+            if(next == null)
+                return false;
+
+            current = next;
+            next = next.next;
+            if(next == null)
+                findNext();
+            return true;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public EntryView<k,v> next() {
+            if(!advance())
+                throw new NoSuchElementException();
+            return this;
+        }
+
+        @Override
+        public k getKey() {
+            return currentEntry().getKey();
+        }
+
+        @Override
+        public v getValue() {
+            return currentEntry().getValue();
+        }
+
+        @Override
+        public v setValue(v value) {
+            return currentEntry().setValue(value);
+        }
+
+        public String toString() {return current == null ? "(before first)" : current.toString();}
+
+        private void findNext() {
+            while(next == null && bucketIndex < table.length){
+                next = table[bucketIndex++];
+            }
         }
 
-        return hash;
+        private Entry<k,v> currentEntry() {
+            if(current == null)
+                throw new IllegalStateException("cursor is not positioned on an association");
+            return current;
+        }
+    }
+
+
+    //tree bin
+
+    /**
+     * AVL tree indexing the entries of one long bucket, ordered by (hash, key.compareTo).
+     * Only built when every key in the bucket has the same Comparable class and no two
+     * keys compare as equal without being equal, so a tree miss is an authoritative miss.
+     * add/remove return false when that no longer holds and the caller drops the tree.
+     */
+    private static class TreeBin<k,v> {
+
+        private final Class<?> keyClass;
+        private TreeNode<k,v> root;
+        private int count;
+
+        private TreeBin(Class<?> keyClass){
+            this.keyClass = keyClass;
+        }
+
+        static <k,v> TreeBin<k,v> fromChain(Entry<k,v> chain){
+            if(!(chain.key instanceof Comparable))
+                return null;
+
+            var tree = new TreeBin<k,v>(chain.key.getClass());
+            for (var e = chain; e != null; e = e.next) {
+                if(!tree.add(e))
+                    return null;
+            }
+            return tree;
+        }
+
+        boolean canOrder(Object key){
+            return key.getClass() == keyClass;
+        }
+
+        Entry<k,v> find(int h, k key){
+            if(!canOrder(key))
+                return null;
+
+            var node = root;
+            while(node != null){
+                var c = compare(h, key, node.entry);
+                if(c == 0)
+                    return node.entry.key.equals(key) ? node.entry : null;
+                node = c < 0 ? node.left : node.right;
+            }
+            return null;
+        }
+
+        boolean add(Entry<k,v> e){
+            if(!canOrder(e.key))
+                return false;
+
+            var before = count;
+            root = insert(root, e);
+            return count > before;
+        }
+
+        /**
+         * Return false when the bin should go back to a plain chain
+         */
+        boolean remove(Entry<k,v> e){
+            root = delete(root, e);
+            return count > UNTREEIFY_THRESHOLD;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <k,v> int compare(int h, k key, Entry<k,v> other){
+            if(h != other.hash)
+                return h < other.hash ? -1 : 1;
+            return ((Comparable<Object>) key).compareTo(other.key);
+        }
+
+        // a compare of 0 means the bucket cannot be ordered safely: leave count unchanged
+        private TreeNode<k,v> insert(TreeNode<k,v> node, Entry<k,v> e){
+            if(node == null){
+                count++;
+                return new TreeNode<>(e);
+            }
+
+            var c = compare(e.hash, e.key, node.entry);
+            if(c == 0)
+                return node;
+            if(c < 0)
+                node.left = insert(node.left, e);
+            else
+                node.right = insert(node.right, e);
+            return balance(node);
+        }
+
+        private TreeNode<k,v> delete(TreeNode<k,v> node, Entry<k,v> e){
+            if(node == null)
+                return null;
+
+            var c = compare(e.hash, e.key, node.entry);
+            if(c < 0){
+                node.left = delete(node.left, e);
+            } else if(c > 0){
+                node.right = delete(node.right, e);
+            } else {
+                count--;
+                if(node.left == null)
+                    return node.right;
+                if(node.right == null)
+                    return node.left;
+
+                var successor = node.right;
+                while(successor.left != null){
+                    successor = successor.left;
+                }
+                node.entry = successor.entry;
+                count++;
+                node.right = delete(node.right, successor.entry);
+            }
+            return balance(node);
+        }
+
+        private static <k,v> int height(TreeNode<k,v> node){
+            return node == null ? 0 : node.height;
+        }
+
+        private static <k,v> TreeNode<k,v> balance(TreeNode<k,v> node){
+            var diff = height(node.left) - height(node.right);
+            if(diff > 1){
+                if(height(node.left.left) < height(node.left.right))
+                    node.left = rotateLeft(node.left);
+                node = rotateRight(node);
+            } else if(diff < -1){
+                if(height(node.right.right) < height(node.right.left))
+                    node.right = rotateRight(node.right);
+                node = rotateLeft(node);
+            } else {
+                node.fixHeight();
+            }
+            return node;
+        }
+
+        private static <k,v> TreeNode<k,v> rotateRight(TreeNode<k,v> node){
+            var l = node.left;
+            node.left = l.right;
+            l.right = node;
+            node.fixHeight();
+            l.fixHeight();
+            return l;
+        }
+
+        private static <k,v> TreeNode<k,v> rotateLeft(TreeNode<k,v> node){
+            var r = node.right;
+            node.right = r.left;
+            r.left = node;
+            node.fixHeight();
+            r.fixHeight();
+            return r;
+        }
     }
 
-    private int hashToIndex(int hash){
-        hash = Math.abs(hash);
+    private static class TreeNode<k,v> {
+
+        Entry<k,v> entry;
+        TreeNode<k,v> left, right;
+        int height;
 
-        return hash % bucketCount();
+        TreeNode(Entry<k,v> entry){
+            this.entry = entry;
+            this.height = 1;
+        }
+
+        void fixHeight(){
+            height = 1 + Math.max(TreeBin.height(left), TreeBin.height(right));
+        }
     }
 
-    private void rehash(){
-        int oldSize = bucketCount();
-        var oldTable = buckets;
 
-        int newSize = (oldSize << 1);
+    private static final class BucketSpliterator<k,v> implements Spliterator<EntryView<k,v>> {
 
-        buckets = initBuckets(newSize);
+        private final Entry<k,v>[] table;
+        private int index;
+        private final int fence;
+        // rest of the chain being walked
+        private Entry<k,v> current;
+        private long estimate;
+        private boolean exact;
+
+        BucketSpliterator(Entry<k,v>[] table, int index, int fence, long estimate, boolean exact){
+            this.table = table;
+            this.index = index;
+            this.fence = fence;
+            this.estimate = estimate;
+            this.exact = exact;
+        }
 
-        size = 0;
+        @Override
+        public Spliterator<EntryView<k,v>> trySplit() {
+            var lo = index;
+            var mid = (lo + fence) >>> 1;
+            if(current != null || mid <= lo)
+                return null;
+
+            index = mid;
+            estimate >>>= 1;
+            exact = false;
+            return new BucketSpliterator<>(table, lo, mid, estimate, false);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super EntryView<k,v>> action) {
+            while(current == null && index < fence){
+                current = table[index++];
+            }
+            if(current == null)
+                return false;
 
-        for (int i = 0; i < oldSize; i++) {
-            for (int j = 0; j < oldTable.get(i).size(); j++) {
-                var elem = oldTable.get(i).get(j);
+            var e = current;
+            current = e.next;
+            action.accept(e);
+            return true;
+        }
 
-                put(elem.key, elem.value);
+        @Override
+        public void forEachRemaining(Consumer<? super EntryView<k,v>> action) {
+            for (var e = current; e != null; e = e.next) {
+                action.accept(e);
+            }
+            current = null;
+            for (; index < fence; index++) {
+                for (var e = table[index]; e != null; e = e.next) {
+                    action.accept(e);
+                }
             }
         }
+
+        @Override
+        public long estimateSize() {
+            return estimate;
+        }
+
+        @Override
+        public int characteristics() {
+            return DISTINCT | NONNULL | (exact ? SIZED : 0);
+        }
     }
 
 
     //entry
-    private static class Entry<k,v> {
+    private static class Entry<k,v> implements EntryView<k,v> {
 
+        final int hash;
         final k key;
         v value;
+        // chains are doubly linked so a treeified bucket can unlink in O(1)
+        Entry<k,v> next, prev;
 
         public k getKey() {
             return key;
@@ -290,9 +1047,11 @@ public class HashTable<k,v> implements DictionaryIdea<k,v> {
             return old;
         }
 
-        Entry(k key, v value){
+        Entry(int hash, k key, v value, Entry<k,v> next){
+            this.hash = hash;
             this.key = key;
             this.value = value;
+            this.next = next;
         }
 
         public String toString() {return key.toString() + " = " + value.toString();}
@@ -0,0 +1,375 @@
+package hash;
+
+import dynamicList.DynamicArray;
+import dynamicList.DynamicList;
+import hashpub.DictionaryIdea;
+
+import java.util.function.Function;
+import java.util.function.LongConsumer;
+import java.util.function.LongUnaryOperator;
+import java.util.function.Supplier;
+
+/**
+ * Open-addressing dictionary with primitive long keys and primitive long values.
+ *
+ * Nothing is boxed on get/put/containsKey, so steady-state use allocates nothing.
+ * Key 0 marks a free slot in the key array, so the association for key 0 (if any)
+ * is kept in dedicated fields instead.
+ * Lookups of an absent key return missingValue() (0 unless configured).
+ * Use asDictionary() to hand the table to code expecting a DictionaryIdea.
+ */
+public class LongLongHashTable {
+
+    //instance variables
+    private static final int DEFAULT_CAP = 16;
+    private static final double DEFAULT_MAX_LOAD = .75;
+    private static final int MAX_CAP = 1 << 30;
+    private final double maxLoadRatio;
+    private final long missingValue;
+
+    private int size;
+    private int mask;
+    private int threshold;
+    private long[] keys;
+    private long[] values;
+
+    private boolean hasZeroKey;
+    private long zeroValue;
+
+
+    //constructors
+
+    private LongLongHashTable(int initCapacity, double maxLoadRatio, long missingValue){
+        if(initCapacity < 0)
+            throw new IllegalArgumentException("capacity must be greater than zero");
+        if(maxLoadRatio <= 0 || maxLoadRatio >= 1)
+            throw new IllegalArgumentException("maxLoadRatio must be between zero and one (exclusive)");
+
+        this.maxLoadRatio = maxLoadRatio;
+        this.missingValue = missingValue;
+        this.size = 0;
+        initSlots(capacityFor(initCapacity));
+    }
+
+    public static LongLongHashTable newEmpty(){
+        return fromCapacityMaxLoadRatio(DEFAULT_CAP, DEFAULT_MAX_LOAD);
+    }
+
+    public static LongLongHashTable fromCapacityMaxLoadRatio(int initCapacity, double maxLoadRatio){
+        return new LongLongHashTable(initCapacity, maxLoadRatio, 0L);
+    }
+
+    public static LongLongHashTable fromCapacityMaxLoadRatioMissingValue(int initCapacity, double maxLoadRatio, long missingValue){
+        return new LongLongHashTable(initCapacity, maxLoadRatio, missingValue);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty(){
+        return size == 0;
+    }
+
+    public int bucketCount() {
+        return keys.length;
+    }
+
+    /**
+     * Value returned by get/put when there is no association
+     */
+    public long missingValue() {
+        return missingValue;
+    }
+
+    /**
+     * Put value at key, return previous value (or missingValue() if none)
+     */
+    public long put(long key, long value) {
+        if(key == 0){
+            var old = hasZeroKey ? zeroValue : missingValue;
+            if(!hasZeroKey){
+                hasZeroKey = true;
+                size++;
+            }
+            zeroValue = value;
+            return old;
+        }
+
+        var slot = findSlot(key);
+        if(slot >= 0){
+            var old = values[slot];
+            values[slot] = value;
+            return old;
+        }
+
+        insertAt(~slot, key, value);
+        return missingValue;
+    }
+
+    public boolean containsKey(long key) {
+        if(key == 0)
+            return hasZeroKey;
+        return findSlot(key) >= 0;
+    }
+
+    /**
+     * Return value at key or missingValue() if key not found
+     */
+    public long get(long key) {
+        if(key == 0)
+            return hasZeroKey ? zeroValue : missingValue;
+        var slot = findSlot(key);
+        return slot >= 0 ? values[slot] : missingValue;
+    }
+
+    public long getIfAbsentPut(long key, LongUnaryOperator provider) {
+        if(containsKey(key))
+            return get(key);
+
+        var value = provider.applyAsLong(key);
+        put(key, value);
+        return value;
+    }
+
+    /**
+     * Remove key and return the removed value
+     * If key is not found throw RuntimeException
+     */
+    public long removeKey(long key) {
+        if(!containsKey(key)){
+            throw new RuntimeException(String.format("key: %d does not exist", key));
+        }
+        return remove(key);
+    }
+
+    /**
+     * Remove key and return the removed value (or missingValue() if key not found)
+     */
+    public long remove(long key) {
+        if(key == 0){
+            if(!hasZeroKey)
+                return missingValue;
+            hasZeroKey = false;
+            size--;
+            return zeroValue;
+        }
+
+        var slot = findSlot(key);
+        return slot >= 0 ? removeAt(slot) : missingValue;
+    }
+
+    /**
+     * Return a new array holding every key (order not specified)
+     */
+    public long[] keys() {
+        var result = new long[size];
+        var j = 0;
+        if(hasZeroKey)
+            result[j++] = 0;
+        for (long key : keys) {
+            if(key != 0)
+                result[j++] = key;
+        }
+        return result;
+    }
+
+    /**
+     * Visit every key without copying or boxing
+     */
+    public void forEachKey(LongConsumer visitFct) {
+        if(hasZeroKey)
+            visitFct.accept(0);
+        for (long key : keys) {
+            if(key != 0)
+                visitFct.accept(key);
+        }
+    }
+
+    /**
+     * Return a DictionaryIdea view backed by this table (keys and values are boxed at the boundary)
+     */
+    public DictionaryIdea<Long, Long> asDictionary() {
+        return new DictionaryIdea<>() {
+            @Override
+            public Long put(Long key, Long value) {
+                if(value == null){
+                    throw new NullPointerException("value cannot be equal to null");
+                }
+                var had = LongLongHashTable.this.containsKey(key);
+                var old = LongLongHashTable.this.put(key, value);
+                return had ? old : null;
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+
+            @Override
+            public boolean containsKey(Long key) {
+                return LongLongHashTable.this.containsKey(key);
+            }
+
+            @Override
+            public Long get(Long key) {
+                return LongLongHashTable.this.containsKey(key) ? LongLongHashTable.this.get(key) : null;
+            }
+
+            @Override
+            public Long getIfAbsentPut(Long key, Function<Long, Long> provider) {
+                return LongLongHashTable.this.getIfAbsentPut(key, provider::apply);
+            }
+
+            @Override
+            public DynamicList<Long> keys() {
+                DynamicList<Long> d = DynamicArray.newEmpty();
+                forEachKey(d::add);
+                return d;
+            }
+
+            @Override
+            public Long removeKey(Long key) {
+                return LongLongHashTable.this.removeKey(key);
+            }
+
+            @Override
+            public Long removeKeyIfAbsent(Long key, Supplier<Long> supplier) {
+                if(!LongLongHashTable.this.containsKey(key))
+                    return supplier.get();
+                return LongLongHashTable.this.remove(key);
+            }
+
+            @Override
+            public int bucketCount() {
+                return LongLongHashTable.this.bucketCount();
+            }
+
+            public String toString() {
+                return LongLongHashTable.this.toString();
+            }
+        };
+    }
+
+    public String toString(){
+
+        if (size == 0){
+            return "{}";
+        }
+
+        StringBuilder sb = new StringBuilder();
+
+        sb.append('{');
+
+        if(hasZeroKey)
+            sb.append(0).append(" = ").append(zeroValue).append(", ");
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0){
+                sb.append(keys[i]).append(" = ").append(values[i]).append(", ");
+            }
+        }
+
+        return sb.append('}').toString();
+    }
+
+    //utils
+
+    /**
+     * Return the slot holding (non-zero) key, or (-insertionSlot - 1) if the key is absent
+     */
+    private int findSlot(long key){
+        var ks = keys;
+        var m = mask;
+        var i = hash(key) & m;
+
+        long current;
+        while((current = ks[i]) != 0){
+            if(current == key)
+                return i;
+            i = (i + 1) & m;
+        }
+        return ~i;
+    }
+
+    private void insertAt(int slot, long key, long value){
+        // grow before writing, so a put that fails at MAX_CAP leaves the table unchanged
+        if(size + 1 - (hasZeroKey ? 1 : 0) > threshold){
+            resize(keys.length << 1);
+            slot = ~findSlot(key);
+        }
+
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+    }
+
+    private long removeAt(int slot){
+        var ks = keys;
+        var vs = values;
+        var m = mask;
+        var old = vs[slot];
+
+        // backward shift: pull every displaced follower of the probe run into the hole
+        var hole = slot;
+        var i = (slot + 1) & m;
+        while(ks[i] != 0){
+            var ideal = hash(ks[i]) & m;
+            if(((i - ideal) & m) >= ((i - hole) & m)){
+                ks[hole] = ks[i];
+                vs[hole] = vs[i];
+                hole = i;
+            }
+            i = (i + 1) & m;
+        }
+        ks[hole] = 0;
+        vs[hole] = 0;
+        size--;
+
+        return old;
+    }
+
+    private void resize(int newLength){
+        if(keys.length >= MAX_CAP)
+            throw new IllegalStateException("table cannot grow beyond " + MAX_CAP + " slots");
+
+        var oldKeys = keys;
+        var oldValues = values;
+
+        initSlots(newLength);
+
+        var ks = keys;
+        var m = mask;
+        for (int j = 0; j < oldKeys.length; j++) {
+            var key = oldKeys[j];
+            if(key == 0)
+                continue;
+
+            var i = hash(key) & m;
+            while(ks[i] != 0){
+                i = (i + 1) & m;
+            }
+            ks[i] = key;
+            values[i] = oldValues[j];
+        }
+    }
+
+    private void initSlots(int length){
+        keys = new long[length];
+        values = new long[length];
+        mask = length - 1;
+        threshold = Math.min((int)(length * maxLoadRatio), length - 1);
+    }
+
+    private int capacityFor(int requested){
+        var cap = 2;
+        while(cap < requested && cap < MAX_CAP){
+            cap <<= 1;
+        }
+        return cap;
+    }
+
+    // fold the high word in, then murmur3 finalizer: ids are often sequential or strided
+    private int hash(long key){
+        return HashSpreader.MURMUR3.spread((int)(key ^ (key >>> 32)));
+    }
+}
@@ -0,0 +1,339 @@
+package hash;
+
+import dynamicList.DynamicArray;
+import dynamicList.DynamicList;
+import hashpub.DictionaryIdea;
+
+import java.util.function.Function;
+import java.util.function.LongConsumer;
+import java.util.function.LongFunction;
+import java.util.function.Supplier;
+
+/**
+ * Open-addressing dictionary keyed by primitive long.
+ *
+ * get/put/containsKey never box the key, so steady-state use allocates nothing.
+ * A slot is free when its value is null (values may not be null), which means
+ * every long (including 0) is a valid key without a sentinel.
+ * Use asDictionary() to hand the table to code expecting a DictionaryIdea.
+ */
+public class LongObjectHashTable<v> {
+
+    //instance variables
+    private static final int DEFAULT_CAP = 16;
+    private static final double DEFAULT_MAX_LOAD = .75;
+    private static final int MAX_CAP = 1 << 30;
+    private final double maxLoadRatio;
+
+    private int size;
+    private int mask;
+    private int threshold;
+    private long[] keys;
+    private v[] values;
+
+
+    //constructors
+
+    private LongObjectHashTable(int initCapacity, double maxLoadRatio){
+        if(initCapacity < 0)
+            throw new IllegalArgumentException("capacity must be greater than zero");
+        if(maxLoadRatio <= 0 || maxLoadRatio >= 1)
+            throw new IllegalArgumentException("maxLoadRatio must be between zero and one (exclusive)");
+
+        this.maxLoadRatio = maxLoadRatio;
+        this.size = 0;
+        initSlots(capacityFor(initCapacity));
+    }
+
+    public static <v> LongObjectHashTable<v> newEmpty(){
+        return fromCapacityMaxLoadRatio(DEFAULT_CAP, DEFAULT_MAX_LOAD);
+    }
+
+    public static <v> LongObjectHashTable<v> fromCapacityMaxLoadRatio(int initCapacity, double maxLoadRatio){
+        return new LongObjectHashTable<>(initCapacity, maxLoadRatio);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty(){
+        return size == 0;
+    }
+
+    public int bucketCount() {
+        return keys.length;
+    }
+
+    /**
+     * Put value at key, return previous value (or null if none)
+     */
+    public v put(long key, v value) {
+        if(value == null){
+            throw new NullPointerException("value cannot be equal to null");
+        }
+
+        var slot = findSlot(key);
+        if(slot >= 0){
+            var old = values[slot];
+            values[slot] = value;
+            return old;
+        }
+
+        insertAt(~slot, key, value);
+        return null;
+    }
+
+    public boolean containsKey(long key) {
+        return findSlot(key) >= 0;
+    }
+
+    /**
+     * Return value at key or null if key not found
+     */
+    public v get(long key) {
+        var slot = findSlot(key);
+        return slot >= 0 ? values[slot] : null;
+    }
+
+    public v getIfAbsentPut(long key, LongFunction<v> provider) {
+        var slot = findSlot(key);
+        if(slot >= 0)
+            return values[slot];
+
+        var value = provider.apply(key);
+        if(value == null){
+            throw new NullPointerException("value cannot be equal to null");
+        }
+        var check = findSlot(key);
+        if(check >= 0){
+            values[check] = value;
+        } else {
+            insertAt(~check, key, value);
+        }
+        return value;
+    }
+
+    /**
+     * Remove key and return the removed value
+     * If key is not found throw RuntimeException
+     */
+    public v removeKey(long key) {
+        var slot = findSlot(key);
+
+        if(slot < 0){
+            throw new RuntimeException(String.format("key: %d does not exist", key));
+        }
+        return removeAt(slot);
+    }
+
+    public v removeKeyIfAbsent(long key, Supplier<v> supplier) {
+        var slot = findSlot(key);
+
+        if(slot < 0){
+            return supplier.get();
+        }
+        return removeAt(slot);
+    }
+
+    /**
+     * Return a new array holding every key (order not specified)
+     */
+    public long[] keys() {
+        var result = new long[size];
+        var j = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if(values[i] != null)
+                result[j++] = keys[i];
+        }
+        return result;
+    }
+
+    /**
+     * Visit every key without copying or boxing
+     */
+    public void forEachKey(LongConsumer visitFct) {
+        for (int i = 0; i < keys.length; i++) {
+            if(values[i] != null)
+                visitFct.accept(keys[i]);
+        }
+    }
+
+    /**
+     * Return a DictionaryIdea view backed by this table (keys are boxed at the boundary)
+     */
+    public DictionaryIdea<Long, v> asDictionary() {
+        return new DictionaryIdea<>() {
+            @Override
+            public v put(Long key, v value) {
+                return LongObjectHashTable.this.put(key, value);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+
+            @Override
+            public boolean containsKey(Long key) {
+                return LongObjectHashTable.this.containsKey(key);
+            }
+
+            @Override
+            public v get(Long key) {
+                return LongObjectHashTable.this.get(key);
+            }
+
+            @Override
+            public v getIfAbsentPut(Long key, Function<Long, v> provider) {
+                return LongObjectHashTable.this.getIfAbsentPut(key, provider::apply);
+            }
+
+            @Override
+            public DynamicList<Long> keys() {
+                DynamicList<Long> d = DynamicArray.newEmpty();
+                forEachKey(d::add);
+                return d;
+            }
+
+            @Override
+            public v removeKey(Long key) {
+                return LongObjectHashTable.this.removeKey(key);
+            }
+
+            @Override
+            public v removeKeyIfAbsent(Long key, Supplier<v> supplier) {
+                return LongObjectHashTable.this.removeKeyIfAbsent(key, supplier);
+            }
+
+            @Override
+            public int bucketCount() {
+                return LongObjectHashTable.this.bucketCount();
+            }
+
+            public String toString() {
+                return LongObjectHashTable.this.toString();
+            }
+        };
+    }
+
+    public String toString(){
+
+        if (size == 0){
+            return "{}";
+        }
+
+        StringBuilder sb = new StringBuilder();
+
+        sb.append('{');
+
+        for (int i = 0; i < keys.length; i++) {
+            if (values[i] != null){
+                sb.append(keys[i]).append(" = ").append(values[i]).append(", ");
+            }
+        }
+
+        return sb.append('}').toString();
+    }
+
+    //utils
+
+    /**
+     * Return the slot holding key, or (-insertionSlot - 1) if the key is absent
+     */
+    private int findSlot(long key){
+        var ks = keys;
+        var vs = values;
+        var m = mask;
+        var i = hash(key) & m;
+
+        while(vs[i] != null){
+            if(ks[i] == key)
+                return i;
+            i = (i + 1) & m;
+        }
+        return ~i;
+    }
+
+    private void insertAt(int slot, long key, v value){
+        // grow before writing, so a put that fails at MAX_CAP leaves the table unchanged
+        if(size + 1 > threshold){
+            resize(keys.length << 1);
+            slot = ~findSlot(key);
+        }
+
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+    }
+
+    private v removeAt(int slot){
+        var ks = keys;
+        var vs = values;
+        var m = mask;
+        var old = vs[slot];
+
+        // backward shift: pull every displaced follower of the probe run into the hole
+        var hole = slot;
+        var i = (slot + 1) & m;
+        while(vs[i] != null){
+            var ideal = hash(ks[i]) & m;
+            if(((i - ideal) & m) >= ((i - hole) & m)){
+                ks[hole] = ks[i];
+                vs[hole] = vs[i];
+                hole = i;
+            }
+            i = (i + 1) & m;
+        }
+        vs[hole] = null;
+        size--;
+
+        return old;
+    }
+
+    private void resize(int newLength){
+        if(keys.length >= MAX_CAP)
+            throw new IllegalStateException("table cannot grow beyond " + MAX_CAP + " slots");
+
+        var oldKeys = keys;
+        var oldValues = values;
+
+        initSlots(newLength);
+
+        var ks = keys;
+        var vs = values;
+        var m = mask;
+        for (int j = 0; j < oldKeys.length; j++) {
+            if(oldValues[j] == null)
+                continue;
+
+            var i = hash(oldKeys[j]) & m;
+            while(vs[i] != null){
+                i = (i + 1) & m;
+            }
+            ks[i] = oldKeys[j];
+            vs[i] = oldValues[j];
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void initSlots(int length){
+        keys = new long[length];
+        values = (v[]) new Object[length];
+        mask = length - 1;
+        threshold = Math.min((int)(length * maxLoadRatio), length - 1);
+    }
+
+    private int capacityFor(int requested){
+        var cap = 2;
+        while(cap < requested && cap < MAX_CAP){
+            cap <<= 1;
+        }
+        return cap;
+    }
+
+    // fold the high word in, then murmur3 finalizer: ids are often sequential or strided
+    private int hash(long key){
+        return HashSpreader.MURMUR3.spread((int)(key ^ (key >>> 32)));
+    }
+}
@@ -0,0 +1,475 @@
+package hash;
+
+import dynamicList.DynamicArray;
+import dynamicList.DynamicList;
+import hashpub.DictionaryIdea;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Off-heap implementation of DictionaryIdea stored in a memory-mapped file.
+ *
+ * Keys and values are encoded by FixedWidthCodecs into fixed-size slots
+ * (1 state byte + key bytes + value bytes) of a linear-probing table inside
+ * the file, so entries are never Java objects and the GC does not see them.
+ * Hashing and equality use the encoded key bytes, which keeps slot positions
+ * valid across JVM restarts.
+ * The file starts with a header (magic, version, slot layout, capacity, size),
+ * so openFromPathCodecs maps an existing file and is ready without a rebuild.
+ *
+ * The file is mapped in chunks of at most CHUNK_BYTES (a single mapping is
+ * limited to 2GB); slots never straddle two chunks.
+ * Growing rehashes into a sibling file that then replaces the original.
+ * Java 17 cannot unmap a MappedByteBuffer explicitly, so the old file's
+ * mappings stay in the address space until the GC collects them: a run of
+ * grows can hold several generations of mappings (and on Windows the move
+ * fails while the old file is still mapped). Presize the table with
+ * createFromPathCapacityCodecs when the final size is known.
+ * Lookups of a key the key codec cannot encode (e.g. a string longer than
+ * the codec allows) are misses; only writes throw for it.
+ * Writes reach the file through the OS page cache; call flush() to force them
+ * to disk and close() when done. Not thread-safe.
+ */
+public class MappedHashTable<k,v> implements DictionaryIdea<k,v>, Closeable {
+
+    private static final long MAGIC = 0x4D61707065644854L; // "MappedHT"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 64;
+    private static final int CHUNK_BYTES = 1 << 30;
+    private static final int MAX_CAP = 1 << 30;
+    private static final double MAX_LOAD = .7;
+
+    // header layout
+    private static final int MAGIC_AT = 0;
+    private static final int VERSION_AT = 8;
+    private static final int KEY_WIDTH_AT = 12;
+    private static final int VALUE_WIDTH_AT = 16;
+    private static final int CAPACITY_AT = 20;
+    private static final int SIZE_AT = 24;
+
+    private static final byte FREE = 0;
+    private static final byte USED = 1;
+
+    private final Path path;
+    private final FixedWidthCodec<k> keyCodec;
+    private final FixedWidthCodec<v> valueCodec;
+    private final int keyWidth;
+    private final int valueWidth;
+    private final int slotWidth;
+    private final int slotsPerChunk;
+    private final ByteBuffer keyScratch;
+    private final byte[] keyBytes;
+    private final byte[] slotBytes;
+
+    private FileChannel channel;
+    private MappedByteBuffer header;
+    private MappedByteBuffer[] chunks;
+    private int capacity;
+    private int mask;
+    private int threshold;
+    private int size;
+
+
+    //constructors
+
+    private MappedHashTable(Path path, FixedWidthCodec<k> keyCodec, FixedWidthCodec<v> valueCodec){
+        this.path = path;
+        this.keyCodec = keyCodec;
+        this.valueCodec = valueCodec;
+        this.keyWidth = keyCodec.width();
+        this.valueWidth = valueCodec.width();
+        this.slotWidth = 1 + keyWidth + valueWidth;
+        this.slotsPerChunk = CHUNK_BYTES / slotWidth;
+        this.keyScratch = ByteBuffer.allocate(keyWidth);
+        this.keyBytes = keyScratch.array();
+        this.slotBytes = new byte[slotWidth];
+    }
+
+    /**
+     * Create (or truncate) the file at path as an empty table sized for initCapacity entries
+     */
+    public static <k,v> MappedHashTable<k,v> createFromPathCapacityCodecs(Path path, int initCapacity, FixedWidthCodec<k> keyCodec, FixedWidthCodec<v> valueCodec){
+        if(initCapacity < 0)
+            throw new IllegalArgumentException("capacity must be greater than zero");
+
+        var table = new MappedHashTable<>(path, keyCodec, valueCodec);
+        table.create(path, slotsFor(initCapacity));
+        return table;
+    }
+
+    /**
+     * Map an existing table file; the codecs must have the widths the file was created with
+     */
+    public static <k,v> MappedHashTable<k,v> openFromPathCodecs(Path path, FixedWidthCodec<k> keyCodec, FixedWidthCodec<v> valueCodec){
+        var table = new MappedHashTable<>(path, keyCodec, valueCodec);
+        table.open(path);
+        return table;
+    }
+
+    public boolean isEmpty(){
+        return size == 0;
+    }
+
+    @Override
+    public v put(k key, v value) {
+        if(value == null){
+            throw new NullPointerException("value cannot be equal to null");
+        }
+        if(key == null){
+            throw new NullPointerException("key cannot be equal to null");
+        }
+
+        var slot = findSlot(key);
+        if(slot >= 0){
+            var old = readValue(slot);
+            writeValue(slot, value);
+            return old;
+        }
+
+        insertAt(~slot, value);
+        return null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(k key) {
+        return lookupSlot(key) >= 0;
+    }
+
+    @Override
+    public v get(k key) {
+        var slot = lookupSlot(key);
+        return slot >= 0 ? readValue(slot) : null;
+    }
+
+    @Override
+    public v getIfAbsentPut(k key, Function<k, v> provider) {
+        var slot = findSlot(key);
+        if(slot >= 0)
+            return readValue(slot);
+
+        var value = provider.apply(key);
+        if(value == null){
+            throw new NullPointerException("value cannot be equal to null");
+        }
+        // the provider may have modified this table, so probe again
+        put(key, value);
+        return value;
+    }
+
+    @Override
+    public DynamicList<k> keys() {
+        DynamicList<k> d = DynamicArray.withCapacity(size);
+
+        for (int slot = 0; slot < capacity; slot++) {
+            if(isUsed(slot))
+                d.add(keyCodec.read(chunkOf(slot), offsetOf(slot) + 1));
+        }
+
+        return d;
+    }
+
+    @Override
+    public v removeKey(k key) {
+        var slot = lookupSlot(key);
+
+        if(slot < 0){
+            throw new RuntimeException(String.format("key: %s does not exist", key));
+        }
+        return removeAt(slot);
+    }
+
+    @Override
+    public v removeKeyIfAbsent(k key, Supplier<v> supplier) {
+        var slot = lookupSlot(key);
+
+        if(slot < 0){
+            return supplier.get();
+        }
+        return removeAt(slot);
+    }
+
+    @Override
+    public int bucketCount() {
+        return capacity;
+    }
+
+    /**
+     * Force every mapped change to the storage device
+     */
+    public void flush(){
+        header.force();
+        for (var chunk : chunks) {
+            chunk.force();
+        }
+    }
+
+    /**
+     * Flush and release the file; the table must not be used afterwards
+     */
+    @Override
+    public void close() {
+        if(channel == null)
+            return;
+
+        flush();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            channel = null;
+            header = null;
+            chunks = null;
+        }
+    }
+
+    public String toString(){
+        return String.format("MappedHashTable{path=%s, size=%d, slots=%d}", path, size, capacity);
+    }
+
+    //utils
+
+    /**
+     * Return the slot holding key, or (-insertionSlot - 1) if the key is absent.
+     * Leaves the encoded key in keyBytes.
+     */
+    private int findSlot(k key){
+        keyCodec.write(key, keyScratch, 0);
+        return probe();
+    }
+
+    /**
+     * As findSlot, for lookups only: a key the codec rejects cannot be stored, so it is absent
+     */
+    private int lookupSlot(k key){
+        try {
+            keyCodec.write(key, keyScratch, 0);
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+        return probe();
+    }
+
+    // probe for the key encoded in keyBytes
+    private int probe(){
+        var i = hashKeyBytes(keyBytes) & mask;
+        while(true){
+            if(!isUsed(i))
+                return ~i;
+            if(keyBytesEqual(i))
+                return i;
+            i = (i + 1) & mask;
+        }
+    }
+
+    // expects the key to insert in keyBytes (as left by findSlot)
+    private void insertAt(int slot, v value){
+        // grow before writing, so a put that fails at MAX_CAP leaves the table unchanged
+        if(size + 1 > threshold){
+            grow();
+            slot = ~probe();
+        }
+
+        var chunk = chunkOf(slot);
+        var offset = offsetOf(slot);
+        chunk.put(offset + 1, keyBytes);
+        valueCodec.write(value, chunk, offset + 1 + keyWidth);
+        chunk.put(offset, USED);
+        setSize(size + 1);
+    }
+
+    private v removeAt(int slot){
+        var old = readValue(slot);
+
+        // backward shift, as in OpenAddressHashTable
+        var hole = slot;
+        var i = (slot + 1) & mask;
+        while(isUsed(i)){
+            chunkOf(i).get(offsetOf(i), slotBytes);
+            var ideal = hashSlotKey(slotBytes) & mask;
+            if(((i - ideal) & mask) >= ((i - hole) & mask)){
+                chunkOf(hole).put(offsetOf(hole), slotBytes);
+                hole = i;
+            }
+            i = (i + 1) & mask;
+        }
+        chunkOf(hole).put(offsetOf(hole), FREE);
+        setSize(size - 1);
+
+        return old;
+    }
+
+    private v readValue(int slot){
+        return valueCodec.read(chunkOf(slot), offsetOf(slot) + 1 + keyWidth);
+    }
+
+    private void writeValue(int slot, v value){
+        valueCodec.write(value, chunkOf(slot), offsetOf(slot) + 1 + keyWidth);
+    }
+
+    private boolean isUsed(int slot){
+        return chunkOf(slot).get(offsetOf(slot)) == USED;
+    }
+
+    private boolean keyBytesEqual(int slot){
+        var chunk = chunkOf(slot);
+        var offset = offsetOf(slot) + 1;
+        for (int j = 0; j < keyWidth; j++) {
+            if(chunk.get(offset + j) != keyBytes[j])
+                return false;
+        }
+        return true;
+    }
+
+    private MappedByteBuffer chunkOf(int slot){
+        return chunks[slot / slotsPerChunk];
+    }
+
+    private int offsetOf(int slot){
+        return (slot % slotsPerChunk) * slotWidth;
+    }
+
+    private void setSize(int newSize){
+        size = newSize;
+        header.putInt(SIZE_AT, newSize);
+    }
+
+    /**
+     * Rehash into a sibling file with twice the slots, then replace this table's file with it
+     */
+    private void grow(){
+        if(capacity >= MAX_CAP)
+            throw new IllegalStateException("table cannot grow beyond " + MAX_CAP + " slots");
+
+        var sibling = path.resolveSibling(path.getFileName() + ".grow");
+        var bigger = new MappedHashTable<>(sibling, keyCodec, valueCodec);
+        bigger.create(sibling, capacity << 1);
+
+        for (int slot = 0; slot < capacity; slot++) {
+            if(!isUsed(slot))
+                continue;
+
+            chunkOf(slot).get(offsetOf(slot), slotBytes);
+            var i = hashSlotKey(slotBytes) & bigger.mask;
+            while(bigger.isUsed(i)){
+                i = (i + 1) & bigger.mask;
+            }
+            bigger.chunkOf(i).put(bigger.offsetOf(i), slotBytes);
+        }
+        bigger.setSize(size);
+        bigger.close();
+        close();
+
+        try {
+            Files.move(sibling, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        open(path);
+    }
+
+    private void create(Path file, int slots){
+        try {
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+            map(slots);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        header.putLong(MAGIC_AT, MAGIC);
+        header.putInt(VERSION_AT, VERSION);
+        header.putInt(KEY_WIDTH_AT, keyWidth);
+        header.putInt(VALUE_WIDTH_AT, valueWidth);
+        header.putInt(CAPACITY_AT, slots);
+        setSize(0);
+    }
+
+    private void open(Path file){
+        try {
+            channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            if(channel.size() < HEADER_BYTES)
+                throw new IllegalStateException(file + " is not a MappedHashTable file");
+
+            header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+            if(header.getLong(MAGIC_AT) != MAGIC || header.getInt(VERSION_AT) != VERSION)
+                throw new IllegalStateException(file + " is not a MappedHashTable file");
+            if(header.getInt(KEY_WIDTH_AT) != keyWidth || header.getInt(VALUE_WIDTH_AT) != valueWidth)
+                throw new IllegalArgumentException(String.format("file stores %d/%d byte keys/values, codecs use %d/%d",
+                        header.getInt(KEY_WIDTH_AT), header.getInt(VALUE_WIDTH_AT), keyWidth, valueWidth));
+
+            // a truncated or corrupt header must not reach map(), which would extend the file
+            var slots = header.getInt(CAPACITY_AT);
+            var entries = header.getInt(SIZE_AT);
+            if(slots < 2 || slots > MAX_CAP || Integer.bitCount(slots) != 1
+                    || entries < 0 || entries > thresholdFor(slots)
+                    || channel.size() < HEADER_BYTES + (long) slots * slotWidth)
+                throw new IllegalStateException(file + " is not a MappedHashTable file");
+
+            map(slots);
+            size = entries;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void map(int slots) throws IOException {
+        capacity = slots;
+        mask = slots - 1;
+        threshold = thresholdFor(slots);
+
+        var chunkCount = (slots + slotsPerChunk - 1) / slotsPerChunk;
+        chunks = new MappedByteBuffer[chunkCount];
+        for (int c = 0; c < chunkCount; c++) {
+            var slotsInChunk = Math.min(slotsPerChunk, slots - c * slotsPerChunk);
+            var position = HEADER_BYTES + (long) c * slotsPerChunk * slotWidth;
+            chunks[c] = channel.map(FileChannel.MapMode.READ_WRITE, position, (long) slotsInChunk * slotWidth);
+        }
+    }
+
+    private static int thresholdFor(int slots){
+        return Math.min((int)(slots * MAX_LOAD), slots - 1);
+    }
+
+    private static int slotsFor(int entries){
+        var slots = 2;
+        while(slots * MAX_LOAD < entries && slots < MAX_CAP){
+            slots <<= 1;
+        }
+        return slots;
+    }
+
+    private int hashSlotKey(byte[] slot){
+        return hashBytes(slot, 1, keyWidth);
+    }
+
+    private int hashKeyBytes(byte[] key){
+        return hashBytes(key, 0, keyWidth);
+    }
+
+    // FNV-1a over the encoded key, finished with murmur3's avalanche step
+    private static int hashBytes(byte[] bytes, int from, int length){
+        var h = 0x811C9DC5;
+        for (int i = from; i < from + length; i++) {
+            h = (h ^ (bytes[i] & 0xFF)) * 0x01000193;
+        }
+        return HashSpreader.MURMUR3.spread(h);
+    }
+}
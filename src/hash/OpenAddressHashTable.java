@@ -0,0 +1,272 @@
+package hash;
+
+import dynamicList.DynamicArray;
+import dynamicList.DynamicList;
+import hashpub.DictionaryIdea;
+
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Open-addressing implementation of DictionaryIdea.
+ *
+ * Keys and values live in two parallel arrays, so a lookup touches the key
+ * array directly instead of walking bucket -> list -> node -> entry.
+ * Collisions are resolved with linear probing and removals use backward-shift
+ * deletion, so the table never holds tombstones.
+ * The slot count is always a power of two (index = hash & mask).
+ */
+public class OpenAddressHashTable<k,v> implements DictionaryIdea<k,v> {
+
+    //instance variables
+    private static final int DEFAULT_CAP = 16;
+    private static final double DEFAULT_MAX_LOAD = .75;
+    private static final int MAX_CAP = 1 << 30;
+    private final double maxLoadRatio;
+
+    private int size;
+    private int mask;
+    private int threshold;
+    private k[] keys;
+    private v[] values;
+
+
+    //constructors
+
+    private OpenAddressHashTable(int initCapacity, double maxLoadRatio){
+        if(initCapacity < 0)
+            throw new IllegalArgumentException("capacity must be greater than zero");
+        if(maxLoadRatio <= 0 || maxLoadRatio >= 1)
+            throw new IllegalArgumentException("maxLoadRatio must be between zero and one (exclusive)");
+
+        this.maxLoadRatio = maxLoadRatio;
+        this.size = 0;
+        initSlots(capacityFor(initCapacity));
+    }
+
+    public static <k,v> OpenAddressHashTable<k,v> newEmpty(){
+        return fromCapacityMaxLoadRatio(DEFAULT_CAP, DEFAULT_MAX_LOAD);
+    }
+
+    public static <k,v> OpenAddressHashTable<k,v> fromCapacityMaxLoadRatio(int initCapacity, double maxLoadRatio){
+        return new OpenAddressHashTable<>(initCapacity, maxLoadRatio);
+    }
+
+    public boolean isEmpty(){
+        return size == 0;
+    }
+
+    @Override
+    public v put(k key, v value) {
+        if(value == null){
+            throw new NullPointerException("value cannot be equal to null");
+        }
+        if(key == null){
+            throw new NullPointerException("key cannot be equal to null");
+        }
+
+        var slot = findSlot(key);
+        if(slot >= 0){
+            var old = values[slot];
+            values[slot] = value;
+            return old;
+        }
+
+        insertAt(~slot, key, value);
+        return null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(k key) {
+        return findSlot(key) >= 0;
+    }
+
+    @Override
+    public v get(k key) {
+        var slot = findSlot(key);
+        return slot >= 0 ? values[slot] : null;
+    }
+
+    @Override
+    public v getIfAbsentPut(k key, Function<k, v> provider) {
+        var slot = findSlot(key);
+        if(slot >= 0)
+            return values[slot];
+
+        var value = provider.apply(key);
+        if(value == null){
+            throw new NullPointerException("value cannot be equal to null");
+        }
+        // the provider may have modified this table, so only reuse the probe result if it did not
+        var check = findSlot(key);
+        if(check >= 0){
+            values[check] = value;
+        } else {
+            insertAt(~check, key, value);
+        }
+        return value;
+    }
+
+    @Override
+    public DynamicList<k> keys() {
+        DynamicList<k> d = DynamicArray.newEmpty();
+
+        for (k key : keys) {
+            if (key != null)
+                d.add(key);
+        }
+
+        return d;
+    }
+
+    @Override
+    public v removeKey(k key) {
+        var slot = findSlot(key);
+
+        if(slot < 0){
+            throw new RuntimeException(String.format("key: %s does not exist", key));
+        }
+        return removeAt(slot);
+    }
+
+    @Override
+    public v removeKeyIfAbsent(k key, Supplier<v> supplier) {
+        var slot = findSlot(key);
+
+        if(slot < 0){
+            return supplier.get();
+        }
+        return removeAt(slot);
+    }
+
+    @Override
+    public int bucketCount() {
+        return keys.length;
+    }
+
+    public String toString(){
+
+        if (size == 0){
+            return "{}";
+        }
+
+        StringBuilder sb = new StringBuilder();
+
+        sb.append('{');
+
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null){
+                sb.append(keys[i]).append(" = ").append(values[i]).append(", ");
+            }
+        }
+
+        return sb.append('}').toString();
+    }
+
+    //utils
+
+    /**
+     * Return the slot holding key, or (-insertionSlot - 1) if the key is absent
+     */
+    private int findSlot(k key){
+        var ks = keys;
+        var m = mask;
+        var i = hash(key) & m;
+
+        while(true){
+            var current = ks[i];
+            if(current == null)
+                return ~i;
+            if(current == key || current.equals(key))
+                return i;
+            i = (i + 1) & m;
+        }
+    }
+
+    private void insertAt(int slot, k key, v value){
+        // grow before writing, so a put that fails at MAX_CAP leaves the table unchanged
+        if(size + 1 > threshold){
+            resize(keys.length << 1);
+            slot = ~findSlot(key);
+        }
+
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+    }
+
+    private v removeAt(int slot){
+        var ks = keys;
+        var vs = values;
+        var m = mask;
+        var old = vs[slot];
+
+        // backward shift: pull every displaced follower of the probe run into the hole
+        var hole = slot;
+        var i = (slot + 1) & m;
+        while(ks[i] != null){
+            var ideal = hash(ks[i]) & m;
+            if(((i - ideal) & m) >= ((i - hole) & m)){
+                ks[hole] = ks[i];
+                vs[hole] = vs[i];
+                hole = i;
+            }
+            i = (i + 1) & m;
+        }
+        ks[hole] = null;
+        vs[hole] = null;
+        size--;
+
+        return old;
+    }
+
+    private void resize(int newLength){
+        if(keys.length >= MAX_CAP)
+            throw new IllegalStateException("table cannot grow beyond " + MAX_CAP + " slots");
+
+        var oldKeys = keys;
+        var oldValues = values;
+
+        initSlots(newLength);
+
+        var ks = keys;
+        var m = mask;
+        for (int j = 0; j < oldKeys.length; j++) {
+            var key = oldKeys[j];
+            if(key == null)
+                continue;
+
+            var i = hash(key) & m;
+            while(ks[i] != null){
+                i = (i + 1) & m;
+            }
+            ks[i] = key;
+            values[i] = oldValues[j];
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void initSlots(int length){
+        keys = (k[]) new Object[length];
+        values = (v[]) new Object[length];
+        mask = length - 1;
+        threshold = Math.min((int)(length * maxLoadRatio), length - 1);
+    }
+
+    private int capacityFor(int requested){
+        var cap = 2;
+        while(cap < requested && cap < MAX_CAP){
+            cap <<= 1;
+        }
+        return cap;
+    }
+
+    private int hash(k key){
+        return HashSpreader.XOR_SHIFT.spread(key.hashCode());
+    }
+}
@@ -92,6 +92,59 @@ public interface DictionaryIdea<K, V> {
 	 * 		dict.removeKeyIfAbsent(key, () -> null);  
 	 */
 	V removeKeyIfAbsent(K key, Supplier<V> supplier);
+
+	//--------------------- Bulk ---------------------
+
+	/**
+	 * Put every association from param "other" into this dict
+	 * (values already at a key are replaced)
+	 */
+	default void putAll(DictionaryIdea<K, V> other) {
+		for (K key : other.keys()) {
+			put(key, other.get(key));
+		}
+	}
+
+	/**
+	 * Put keys[i] -> values[i] for every i
+	 * Throws IllegalArgumentException if the arrays differ in length
+	 */
+	default void putAll(K[] keys, V[] values) {
+		if (keys.length != values.length)
+			throw new IllegalArgumentException(String.format("%d keys but %d values", keys.length, values.length));
+		for (int i = 0; i < keys.length; i++) {
+			put(keys[i], values[i]);
+		}
+	}
+
+	/**
+	 * Look up every key in param "keys" and store the value (or null if not found)
+	 * at the same index in param "results", which is then returned
+	 * Throws IllegalArgumentException if "results" is shorter than "keys"
+	 */
+	default V[] getAll(DynamicList<K> keys, V[] results) {
+		if (results.length < keys.size())
+			throw new IllegalArgumentException(String.format("results holds %d values but %d keys were passed", results.length, keys.size()));
+		// iterate rather than keys.get(i), which is O(i) on a LinkedList
+		var i = 0;
+		for (K key : keys) {
+			results[i++] = get(key);
+		}
+		return results;
+	}
+
+	/**
+	 * Remove every key in param "keys" (keys not found are ignored)
+	 * Return the number of associations removed
+	 */
+	default int removeAll(DynamicList<K> keys) {
+		var removed = 0;
+		for (K key : keys) {
+			if (removeKeyIfAbsent(key, () -> null) != null)
+				removed++;
+		}
+		return removed;
+	}
 	
 	//--------------------- Optional ---------------------
 	
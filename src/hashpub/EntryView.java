@@ -0,0 +1,29 @@
+package hashpub;
+
+/**
+ * Interface: hashpub.EntryView
+
+ A view onto one association (key -> value) inside a dictionary.
+
+ Views handed out while iterating may be reused: the same object
+ is moved to the next association on every step, so copy the key
+ and value out if they must outlive the step.
+ */
+public interface EntryView<K, V> {
+
+	/**
+	 * Return the key of the current association
+	 */
+	K getKey();
+
+	/**
+	 * Return the value of the current association
+	 */
+	V getValue();
+
+	/**
+	 * Replace the value of the current association (in the dictionary itself)
+	 * Return previous value
+	 */
+	V setValue(V value);
+}
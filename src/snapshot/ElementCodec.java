@@ -0,0 +1,62 @@
+package snapshot;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Writes/reads one element of a snapshot (see Snapshot).
+ * read must consume exactly the bytes write produced.
+ */
+public interface ElementCodec<T> {
+
+    void write(T value, DataOutput out) throws IOException;
+
+    T read(DataInput in) throws IOException;
+
+    ElementCodec<Integer> INT = new ElementCodec<>() {
+        public void write(Integer value, DataOutput out) throws IOException { out.writeInt(value); }
+        public Integer read(DataInput in) throws IOException { return in.readInt(); }
+    };
+
+    ElementCodec<Long> LONG = new ElementCodec<>() {
+        public void write(Long value, DataOutput out) throws IOException { out.writeLong(value); }
+        public Long read(DataInput in) throws IOException { return in.readLong(); }
+    };
+
+    ElementCodec<Double> DOUBLE = new ElementCodec<>() {
+        public void write(Double value, DataOutput out) throws IOException { out.writeDouble(value); }
+        public Double read(DataInput in) throws IOException { return in.readDouble(); }
+    };
+
+    /**
+     * UTF-8 bytes behind an int length (no 64KB limit, unlike DataOutput.writeUTF)
+     * read grows its buffer as bytes arrive, so a corrupt length cannot allocate
+     * more than the stream holds
+     */
+    ElementCodec<String> STRING = new ElementCodec<>() {
+        public void write(String value, DataOutput out) throws IOException {
+            var bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+
+        public String read(DataInput in) throws IOException {
+            var length = in.readInt();
+            if(length < 0)
+                throw new StreamCorruptedException("snapshot string length is negative: " + length);
+
+            var bytes = new byte[Math.min(length, 1 << 16)];
+            in.readFully(bytes);
+            while(bytes.length < length){
+                var read = bytes.length;
+                bytes = Arrays.copyOf(bytes, (int) Math.min(length, 2L * read));
+                in.readFully(bytes, read, bytes.length - read);
+            }
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    };
+}
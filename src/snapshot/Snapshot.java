@@ -0,0 +1,138 @@
+package snapshot;
+
+import java.io.*;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Framing shared by the writeTo/readFrom methods of the data structures.
+ *
+ * A snapshot is: magic "SNAP" (int), format version (byte), structure kind
+ * (byte), the structure's own payload, then the CRC32 of everything before it
+ * (long). Streams are buffered here; callers pass raw streams, which are
+ * flushed but never closed. readFrom may buffer past the end of the snapshot.
+ */
+public final class Snapshot {
+
+    public static final byte DYNAMIC_ARRAY = 1;
+    public static final byte HASH_TABLE = 2;
+    public static final byte BST = 3;
+
+    private static final int MAGIC = 0x534E4150; // "SNAP"
+    private static final byte VERSION = 1;
+    private static final int BUFFER_BYTES = 1 << 16;
+
+    @FunctionalInterface
+    public interface Payload {
+        void write(DataOutput out) throws IOException;
+    }
+
+    @FunctionalInterface
+    public interface Restorer<T> {
+        T read(DataInput in) throws IOException;
+    }
+
+    private Snapshot() {
+    }
+
+    public static void write(OutputStream out, byte kind, Payload payload) throws IOException {
+        // buffer above the checksum so the CRC is updated a whole buffer at a time
+        var crc = new CRC32();
+        var data = new DataOutputStream(new BufferedOutputStream(new CheckedOutputStream(out, crc), BUFFER_BYTES));
+
+        data.writeInt(MAGIC);
+        data.writeByte(VERSION);
+        data.writeByte(kind);
+        payload.write(data);
+        data.flush();
+
+        // the checksum itself is written around the CheckedOutputStream
+        var trailer = new DataOutputStream(out);
+        trailer.writeLong(crc.getValue());
+        trailer.flush();
+    }
+
+    /**
+     * Throws StreamCorruptedException if the stream is not a "kind" snapshot,
+     * ends before the snapshot does, or its checksum does not match
+     */
+    public static <T> T read(InputStream in, byte kind, Restorer<T> restorer) throws IOException {
+        var checked = new ChecksummedInput(in);
+        var data = new DataInputStream(checked);
+
+        if (data.readInt() != MAGIC)
+            throw new StreamCorruptedException("not a snapshot");
+        var version = data.readByte();
+        if (version != VERSION)
+            throw new StreamCorruptedException(String.format("unsupported snapshot version %d", version));
+        var found = data.readByte();
+        if (found != kind)
+            throw new StreamCorruptedException(String.format("snapshot holds structure kind %d, expected %d", found, kind));
+
+        // a corrupt length can make the restorer read past the real payload
+        try {
+            var result = restorer.read(data);
+
+            var expected = checked.checksum();
+            if (data.readLong() != expected)
+                throw new StreamCorruptedException("snapshot checksum mismatch");
+            return result;
+        } catch (EOFException e) {
+            throw new StreamCorruptedException("snapshot is truncated");
+        }
+    }
+
+    /**
+     * Buffered input that checksums exactly the bytes consumed so far, a buffer
+     * at a time (a CheckedInputStream below a buffer would also checksum the
+     * read-ahead, and above one it would update the CRC byte by byte)
+     */
+    private static final class ChecksummedInput extends InputStream {
+
+        private final InputStream in;
+        private final CRC32 crc = new CRC32();
+        private final byte[] buf = new byte[BUFFER_BYTES];
+        private int pos;
+        private int limit;
+        // buf[checkedUpTo, pos) is consumed but not yet in crc
+        private int checkedUpTo;
+
+        ChecksummedInput(InputStream in) {
+            this.in = in;
+        }
+
+        long checksum() {
+            crc.update(buf, checkedUpTo, pos - checkedUpTo);
+            checkedUpTo = pos;
+            return crc.getValue();
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (pos == limit && !fill())
+                return -1;
+            return buf[pos++] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0)
+                return 0;
+            if (pos == limit && !fill())
+                return -1;
+            var n = Math.min(len, limit - pos);
+            System.arraycopy(buf, pos, b, off, n);
+            pos += n;
+            return n;
+        }
+
+        private boolean fill() throws IOException {
+            crc.update(buf, checkedUpTo, pos - checkedUpTo);
+            var n = in.read(buf, 0, buf.length);
+            pos = 0;
+            checkedUpTo = 0;
+            limit = Math.max(n, 0);
+            return n > 0;
+        }
+    }
+}